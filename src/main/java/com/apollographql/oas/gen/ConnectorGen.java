@@ -2,19 +2,23 @@ package com.apollographql.oas.gen;
 
 import com.apollographql.oas.converter.utils.NameUtils;
 import com.apollographql.oas.gen.context.Context;
-import com.apollographql.oas.gen.context.RefCounter;
+import com.apollographql.oas.gen.context.EmissionPlanner;
+import com.apollographql.oas.gen.context.PathTrails;
+import com.apollographql.oas.gen.context.TypeRegistry;
+import com.apollographql.oas.gen.context.FragmentCache;
+import com.apollographql.oas.gen.context.VisitedPaths;
 import com.apollographql.oas.gen.factory.Factory;
 import com.apollographql.oas.gen.naming.Naming;
 import com.apollographql.oas.gen.nodes.GetOp;
 import com.apollographql.oas.gen.nodes.Type;
 import com.apollographql.oas.gen.nodes.params.Param;
+import com.apollographql.oas.gen.output.SchemaWriter;
 import com.apollographql.oas.gen.prompt.Input;
 import com.apollographql.oas.gen.prompt.Prompt;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.Paths;
-import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.oas.models.servers.Server;
 import io.swagger.v3.oas.models.servers.ServerVariable;
 import io.swagger.v3.parser.OpenAPIV3Parser;
@@ -23,8 +27,9 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.LogManager;
-import java.util.stream.Collectors;
 
 import static com.apollographql.oas.gen.log.Trace.trace;
 
@@ -33,6 +38,21 @@ public class ConnectorGen {
   private Prompt prompt;
   private Context context;
   private Set<Type> collected;
+  private int parallelism = 1;
+  private EmissionPlanner.Order emissionOrder = EmissionPlanner.Order.ALPHABETICAL;
+  private Progress progress = Progress.NONE;
+  private VisitedPaths reusable;
+  private PathTrails trails;
+  private boolean replaying = true; // false once reused paths diverged, see plan()
+  private FragmentCache fragments;
+
+  /* told about every GET path once visit() is done with it, whether it was selected or not. An unchecked
+   * exception thrown from here stops the generation (see Job) */
+  public interface Progress {
+    Progress NONE = (path, done, total) -> { };
+
+    void path(String path, int done, int total);
+  }
 
   public ConnectorGen(final OpenAPI parser, final Prompt prompt) {
     this.parser = parser;
@@ -51,6 +71,43 @@ public class ConnectorGen {
     this.prompt = prompt;
   }
 
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /* number of threads used to visit the selected paths, 1 (the default) visits them sequentially. Paths are
+   * only visited in parallel when the prompt input can answer concurrently (see Input.isConcurrent) */
+  public void setParallelism(final int parallelism) {
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  public EmissionPlanner.Order getEmissionOrder() {
+    return emissionOrder;
+  }
+
+  /* order of the types in the written schema, alphabetical by default */
+  public void setEmissionOrder(final EmissionPlanner.Order emissionOrder) {
+    this.emissionOrder = Objects.requireNonNull(emissionOrder);
+  }
+
+  public void setProgress(final Progress progress) {
+    this.progress = progress != null ? progress : Progress.NONE;
+  }
+
+  /* paths visited by earlier generations over the same spec: a selected path whose recorded prompts get the
+   * same answers is taken from there rather than visited again, and the paths visited here are added to it.
+   * Only used when the prompt input can answer concurrently (answers depend on the id alone), and the paths are
+   * then visited sequentially */
+  public void setReusable(final VisitedPaths reusable) {
+    this.reusable = reusable;
+  }
+
+  /* type definitions rendered by earlier generations over the same spec, spliced in for the types that render
+   * the same, and where the ones rendered here are added */
+  public void setFragments(final FragmentCache fragments) {
+    this.fragments = fragments;
+  }
+
   /**
    * @deprecated Use only for recording
    */
@@ -125,180 +182,291 @@ public class ConnectorGen {
 
     final Set<Type> collected = new LinkedHashSet<>();
 
-    for (final Map.Entry<String, PathItem> entry : filtered) {
-      if (!context.getPrompt().yesNo("get:" + entry.getKey(), "visit '" + entry.getKey() + "'?")) {
-        trace(context, "   [visitPath]", entry.getKey() + " skipped");
-        continue;
+    final int total = filtered.size();
+    final AtomicInteger done = new AtomicInteger();
+
+    if (trails != null) {
+      for (int i = 0; i < total; i++) {
+        checkInterrupted("visiting paths");
+        final Map.Entry<String, PathItem> entry = filtered.get(i);
+        if (isSelected(context, entry)) {
+          collected.add(visitOrReuse(context, entry, i));
+        }
+
+        progress.path(entry.getKey(), done.incrementAndGet(), total);
+      }
+    }
+    else if (parallelism > 1 && context.getPrompt().getInput().isConcurrent()) {
+      final List<Map.Entry<String, PathItem>> selected = new ArrayList<>();
+      for (final Map.Entry<String, PathItem> entry : filtered) {
+        if (isSelected(context, entry)) selected.add(entry);
+        else progress.path(entry.getKey(), done.incrementAndGet(), total);
       }
 
-      final Type result = visitPath(context, entry.getKey(), entry.getValue());
-      collected.add(result);
+      collected.addAll(visitParallel(context, selected, done, total));
+    }
+    else {
+      // prompts are interleaved with the visit, path by path
+      for (final Map.Entry<String, PathItem> entry : filtered) {
+        checkInterrupted("visiting paths");
+        if (isSelected(context, entry)) {
+          final Type result = visitPath(context, entry.getKey(), entry.getValue());
+          collected.add(result);
+        }
+
+        progress.path(entry.getKey(), done.incrementAndGet(), total);
+      }
     }
 
     this.collected = collected;
+    trace(context, "   [visit]", () -> "registry: " + context.getRegistry().stats());
+    trace(context, "   [visit]", () -> "naming: " + Naming.stats());
+  }
+
+  /* checked once per path and per written type, so an interrupted generation (i.e. a cancelled job) stops
+   * there rather than running to the end */
+  private static void checkInterrupted(final String whilst) throws InterruptedIOException {
+    if (Thread.currentThread().isInterrupted()) throw new InterruptedIOException("Interrupted whilst " + whilst);
+  }
+
+  private Type visitOrReuse(final Context context, final Map.Entry<String, PathItem> entry, final int index) {
+    final String root = "get:" + entry.getKey();
+
+    // the recorded answers are asked again, a different one means this path has to be visited
+    final PathTrails.Trail previous = replaying ? reusable.get(root) : null;
+    if (previous != null && previous.replays(getPrompt())) {
+      trace(context, "   [visitPath]", () -> entry.getKey() + " reused, " + previous.size() + " answers");
+      trails.reuse(previous, index, context.getRegistry());
+      reusable.hit();
+
+      return previous.getType();
+    }
+
+    if (replaying) reusable.miss();
+    final PathTrails.Trail trail = trails.begin(root, index);
+    final Type result = visitPath(context, entry.getKey(), entry.getValue());
+    trail.setType(result);
+
+    return result;
+  }
+
+  private static boolean isSelected(final Context context, final Map.Entry<String, PathItem> entry) {
+    if (!context.getPrompt().yesNo("get:" + entry.getKey(), "visit '" + entry.getKey() + "'?")) {
+      trace(context, "   [visitPath]", entry.getKey() + " skipped");
+      return false;
+    }
+
+    return true;
+  }
+
+  /* each path is visited with its own traversal over the shared registry. Paths do share nodes through it: a
+   * response ref another path has already stored is taken from the registry (context.get) rather than visited
+   * again, possibly whilst that path is still visiting it. That's fine as the registry is concurrent, nothing is
+   * written before every path is done, and stores merge by path index, so the registry ends up with the types a
+   * sequential visit would leave, whichever path got to them first */
+  private List<Type> visitParallel(final Context context, final List<Map.Entry<String, PathItem>> selected,
+                                   final AtomicInteger done, final int total) throws IOException {
+
+    final List<Callable<Type>> tasks = new ArrayList<>();
+    for (int i = 0; i < selected.size(); i++) {
+      final Map.Entry<String, PathItem> entry = selected.get(i);
+      final Context traversal = context.fork(i);
+
+      tasks.add(() -> {
+        final Type result = visitPath(traversal, entry.getKey(), entry.getValue());
+        progress.path(entry.getKey(), done.incrementAndGet(), total);
+        return result;
+      });
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, tasks.size())));
+    try {
+      final List<Type> results = new ArrayList<>();
+
+      for (final Future<Type> future : executor.invokeAll(tasks)) {
+        results.add(future.get());
+      }
+
+      return results;
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted whilst visiting paths", e);
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+      throw new IOException("Could not visit paths", e.getCause());
+    }
+    finally {
+      executor.shutdownNow();
+    }
   }
 
   public Context getContext() {
     if (this.context == null) {
-      this.context = new Context(getParser(), getPrompt());
+      if (reusable != null && getPrompt().getInput().isConcurrent()) {
+        this.trails = new PathTrails(getParser().getPaths().size());
+        this.context = new Context(new TypeRegistry(getParser()), trails.wrap(getPrompt()), trails);
+      }
+      else {
+        this.context = new Context(getParser(), getPrompt());
+      }
     }
     return this.context;
   }
 
-  public void writeSchema(Writer writer) throws IOException {
+  public void writeSchema(final Writer target) throws IOException {
+    final EmissionPlanner.Plan plan = plan();
+    printRefs(plan.refs());
+
+    final SchemaWriter writer = SchemaWriter.of(target);
     final Set<String> generatedSet = context.getGeneratedSet();
     generatedSet.clear();
 
     writeDirectives(writer);
     writeJSONScalar(writer);
 
-    final RefCounter counter = new RefCounter(getContext());
-    counter.addAll(collected);
-
-    final Map<String, Integer> refs = counter.getCount();
-    printRefs(refs);
-
-    // we can sort by ref count I guess if we wanted to
-//    final Map<String, Type> types = context.getTypes();
-//    final Set<Type> filtered = types.values().stream()
-//      .filter(t -> refs.containsKey(t.getName()))
-//      .sorted((o1, o2) -> {
-//        int o1rc = refs.get(o1.getName());
-//        int o2rc = refs.get(o2.getName());
-//        return o1rc > o2rc ? -1 : o1rc < o2rc ? 1 : 0;
-//      }).collect(Collectors.toCollection(LinkedHashSet::new));
-//
-//    for (Type type : filtered) {
-//      type.generate(context, writer);
-//      generatedSet.add(type.getName());
-//    }
-
     // 1. generated collected types
-    for (final Type type : context.getTypes().values()) {
-      if (counter.getCount().containsKey(type.getName())) {
-        type.generate(context, writer);
-        generatedSet.add(type.getName());
-      }
+    for (final Type type : plan.types()) {
+      checkInterrupted("writing types");
+      writeDefinition(writer, type);
+      generatedSet.add(type.getName());
     }
 
     // 2. now operations
     writeQuery(context, writer, collected);
     writer.flush();
+
+    if (trails != null) {
+      trace(context, "   [writeSchema]", () -> "operations: " + trails.getOperationsReused() + " reused, "
+        + trails.getOperationsRendered() + " rendered");
+      reusable.addAll(trails.finish());
+    }
   }
 
-  private void writeJSONScalar(final Writer writer) throws IOException {
-    writer.write("\nscalar JSON\n\n");
+  private interface Fragment {
+    void write(SchemaWriter writer) throws IOException;
   }
 
-  private void writeQuery(final Context context, final Writer writer, final Set<Type> collected)
+  /* an operation. With trails the rendered text is kept with the path it came from, a reused path renders to
+   * the same text so that's spliced in rather than generated again */
+  private void writeOperation(final SchemaWriter writer, final Type type, final Fragment fragment)
     throws IOException {
+    final PathTrails.Trail trail = trails != null ? trails.trail(type) : null;
+    if (trail == null) {
+      fragment.write(writer);
+      return;
+    }
 
-    writer.write("type Query {\n");
-
-    for (final Type type : collected) {
-      type.generate(context, writer);
-
-      writeConnector(context, writer, type);
-      context.getGeneratedSet().add(type.getName());
+    String text = trail.getOperation(type);
+    if (text == null) {
+      text = render(fragment);
+      trail.putOperation(type, text);
+      trails.rendered();
+    }
+    else {
+      trails.reused();
     }
 
-    writer.write("}\n\n");
+    writer.write(text);
   }
 
-  private void writeConnector(final Context context, final Writer writer, final Type type) throws IOException {
-    int indent = 0;
-
-    // we can safely cast to GetOp
-    GetOp get = (GetOp) type;
-
-    var spacing = " ".repeat(indent + 4);
-    writer.append(spacing).append("@connect(\n");
-
-    final String request = buildRequestMethodAndArgs(get);
+  /* a type definition, taken from the fragment cache when an earlier generation rendered the same one */
+  private void writeDefinition(final SchemaWriter writer, final Type type) throws IOException {
+    final FragmentCache.Key key = fragments != null ? FragmentCache.key(context, type) : null;
+    if (key == null) {
+      type.generate(context, writer);
+      return;
+    }
 
-    spacing = " ".repeat(indent + 6);
-    writer
-      .append(spacing).append("source: \"api\"\n")
-      .append(spacing).append("http: " + request + "\n")
-      .append(spacing).append("selection: \"\"\"\n");
+    String text = fragments.get(key);
+    if (text == null) {
+      text = render(out -> type.generate(context, out));
+      fragments.put(key, text);
+    }
 
-    if (get.getResultType() != null)
-      writeSelection(context, writer, get.getResultType());
+    writer.write(text);
+  }
 
-    writer.append(spacing).append("\"\"\"\n");
+  private static String render(final Fragment fragment) throws IOException {
+    final StringWriter buffer = new StringWriter();
+    final SchemaWriter out = SchemaWriter.of(buffer);
+    fragment.write(out);
+    out.flush();
 
-    spacing = " ".repeat(indent + 4);
-    writer.append(spacing).append(")\n");
+    return buffer.toString();
   }
 
-  private static String buildRequestMethodAndArgs(final GetOp get) {
-    StringBuilder builder = new StringBuilder();
-
-    builder
-      .append("\"")
-      .append(get.getOriginalPath().replaceAll("\\{([a-zA-Z0-9]+)\\}", "{\\$args.$1}"));
+  /* the dependency pass, which also visits whatever the visit left for later */
+  private EmissionPlanner.Plan plan() throws IOException {
+    if (trails == null) {
+      return new EmissionPlanner(getContext(), emissionOrder).plan(collected);
+    }
 
-    // we can potentially the required params here:
-    if (!get.getParameters().isEmpty()) {
-      // add the query params
-      final List<Parameter> queries = get.getGet().getParameters().stream()
-        .filter(p -> Boolean.TRUE.equals(p.getRequired()) && p.getIn() != null && p.getIn().equalsIgnoreCase("query"))
-        .toList();
+    trails.write(context.getRegistry());
+    final EmissionPlanner.Plan plan = new EmissionPlanner(getContext(), emissionOrder).plan(collected);
+    if (!trails.isDiverged() || trails.getReused() == 0) {
+      return plan;
+    }
 
-      if (!queries.isEmpty()) {
-        final String queryString = queries.stream()
-          .map(p -> p.getName() + "={$args." + Naming.genParamName(p.getName()) + "}")
-          .collect(Collectors.joining("&"));
+    // a replayed path may not have given the same result here, start over visiting everything. The paths are
+    // still recorded for later generations, and progress isn't reported again: it would go back to 0
+    trace(context, "   [writeSchema]", "reused paths diverged, visiting them again");
+    final Progress progress = this.progress;
+    this.progress = Progress.NONE;
+    this.replaying = false;
+    this.trails = null;
+    this.context = null;
+    try {
+      visit();
+      trails.write(context.getRegistry());
+      return new EmissionPlanner(getContext(), emissionOrder).plan(collected);
+    }
+    finally {
+      this.progress = progress;
+    }
+  }
 
-        builder
-          .append("?")
-          .append(queryString);
-      }
+  private void writeJSONScalar(final Writer writer) throws IOException {
+    writer.write("\nscalar JSON\n\n");
+  }
 
-      // add the headers
-      final List<Parameter> headers = get.getGet().getParameters().stream()
-        .filter(p -> p.getIn() != null && p.getIn().equalsIgnoreCase("header"))
-        .toList();
+  private void writeQuery(final Context context, final SchemaWriter writer, final Set<Type> collected)
+    throws IOException {
 
-      builder.append("\"\n");
+    writer.write("type Query {\n");
 
-      if (!headers.isEmpty()) {
-        var spacing = " ".repeat(6);
-        builder
-          .append(spacing)
-          .append("headers: [\n");
+    for (final Type type : collected) {
+      checkInterrupted("writing operations");
+      writeOperation(writer, type, out -> {
+        type.generate(context, out);
+        writeConnector(context, out, type);
+      });
+      context.getGeneratedSet().add(type.getName());
+    }
 
-        spacing = " ".repeat(8);
-        for (Parameter p : headers) {
-          final String name = p.getName();
+    writer.write("}\n\n");
+  }
 
-          String value = null;
-          if (p.getExample() != null)
-            value = p.getExample().toString();
+  private void writeConnector(final Context context, final SchemaWriter writer, final Type type) throws IOException {
+    int indent = 0;
 
-          if (p.getExamples() != null && p.getExamples().isEmpty())
-            value = String.join(",", p.getExamples().keySet());
+    // we can safely cast to GetOp
+    GetOp get = (GetOp) type;
 
-          if (value == null)
-              value = "<placeholder>";
+    writer.spaces(indent + 4).line("@connect(");
 
-          builder
-            .append(spacing)
-            .append("{ ").append("name: \"").append(name).append("\", value: \"").append(value).append("\" }\n");
-        }
+    writer.spaces(indent + 6).append("source: ").quoted("api").append('\n');
+    writer.spaces(indent + 6).append("http: ");
+    get.getHttpTemplate().write(writer);
+    writer.append('\n');
+    writer.spaces(indent + 6).line("selection: \"\"\"");
 
-        spacing = " ".repeat(6);
-        builder
-          .append(spacing)
-          .append("]");
-      }
-    }
-    else {
-      builder.append("\"");
-    }
+    if (get.getResultType() != null)
+      writeSelection(context, writer, get.getResultType());
 
-    final String request = "{ GET: " + builder + " }";
-    return request;
+    writer.spaces(indent + 6).line("\"\"\"");
+    writer.spaces(indent + 4).line(")");
   }
 
   private Type visitPath(final Context context, final String name, final PathItem path) {
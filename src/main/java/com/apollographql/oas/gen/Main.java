@@ -40,6 +40,11 @@ class VisitorCommand implements Callable<Integer> {
       """)
   File recording;
 
+  @Option(names = {"-p", "--parallel"}, paramLabel = "<threads>",
+    description = "visit the selected paths with this many threads, only used with '--input-type skip'",
+    defaultValue = "1")
+  int parallelism = 1;
+
   @Option(names = {"-h", "--help"}, usageHelp = true, description = "display a help message")
   boolean helpRequested = false;
 
@@ -59,6 +64,7 @@ class VisitorCommand implements Callable<Integer> {
     }
 
     final ConnectorGen generator = ConnectorGen.fromFile(source.getAbsolutePath(), prompt);
+    generator.setParallelism(parallelism);
     generator.visit();
 
     Writer writer;
@@ -1,10 +1,15 @@
 package com.apollographql.oas.gen;
 
 import com.apollographql.oas.gen.context.Context;
+import com.apollographql.oas.gen.context.PathIndex;
 import com.apollographql.oas.gen.context.RefCounter;
+import com.apollographql.oas.gen.context.FragmentCache;
+import com.apollographql.oas.gen.context.VisitedPaths;
 import com.apollographql.oas.gen.factory.Factory;
+import com.apollographql.oas.gen.nodes.Composed;
 import com.apollographql.oas.gen.nodes.GetOp;
 import com.apollographql.oas.gen.nodes.Type;
+import com.apollographql.oas.gen.nodes.Union;
 import com.apollographql.oas.gen.prompt.Prompt;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
@@ -15,14 +20,21 @@ import io.swagger.v3.parser.core.models.ParseOptions;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.apollographql.oas.gen.log.Trace.trace;
 
 public class WebGenerator {
   private final OpenAPI parser;
-  private Prompt prompt;
-  private Context context;
-  private final Set<Type> collected = new LinkedHashSet<>();
+  private volatile Prompt prompt;
+  private volatile Context context;
+  private final ReentrantLock contextLock = new ReentrantLock();
+  private final ReentrantLock visitLock = new ReentrantLock();
+  private final Set<Type> collected = new CopyOnWriteArraySet<>();
+  private final PathIndex index = new PathIndex();
+  private final VisitedPaths generated = new VisitedPaths();
+  private final FragmentCache fragments = new FragmentCache(4096);
 
   public WebGenerator(final OpenAPI parser, final Prompt prompt) {
     this.parser = parser;
@@ -42,6 +54,10 @@ public class WebGenerator {
   }
 
   public static WebGenerator fromFile(final String source, final Prompt prompt) throws IOException {
+    return new WebGenerator(parse(source), prompt);
+  }
+
+  public static OpenAPI parse(final String source) throws IOException {
     final ParseOptions options = new ParseOptions();
     options.setResolve(true); // implicit
     options.setResolveCombinators(false); // default is true
@@ -54,7 +70,7 @@ public class WebGenerator {
 
     if (parser == null) throw new IOException("Could not create OpenAPI parser for source file");
 
-    return new WebGenerator(parser, prompt);
+    return parser;
   }
 
   public List<String> listGetPaths() throws IOException {
@@ -75,11 +91,24 @@ public class WebGenerator {
     return collected;
   }
 
+  /* sessions are shared between concurrent requests, so the context is created once under a lock (not a
+   * monitor, which would pin a virtual thread whilst the registry gets built) */
   public Context getContext() {
-    if (this.context == null) {
-      this.context = new Context(getParser(), getPrompt());
+    Context context = this.context;
+    if (context == null) {
+      contextLock.lock();
+      try {
+        context = this.context;
+        if (context == null) {
+          context = new Context(getParser(), getPrompt());
+          this.context = context;
+        }
+      }
+      finally {
+        contextLock.unlock();
+      }
     }
-    return this.context;
+    return context;
   }
 
   private Type visitPath(final Context context, final String name, final PathItem path) {
@@ -104,8 +133,10 @@ public class WebGenerator {
       .findFirst();
 
     if (found.isPresent()) {
-      final GetOp result = (GetOp) visitPath(getContext(), found.get().getKey(), found.get().getValue());
+      // each request gets its own traversal, the stored types are shared through the registry
+      final GetOp result = (GetOp) visitPath(getContext().fork(), found.get().getKey(), found.get().getValue());
       collected.add(result);
+      index.index(result);
 
       return result;
     }
@@ -114,17 +145,74 @@ public class WebGenerator {
     }
   }
 
+  /* a found node is shared by the session's requests, and visiting it adds its children and props, so it's
+   * visited by one of them whilst the others wait. A node's visit reaches into its descendants, which can be
+   * found on their own too, so that's one lock per session rather than per node. The slow search walks those
+   * same nodes, so it's under the lock as well */
   public Type find(final String path) {
-    final Type type = Type.findTypeIn(path, this.getCollected());
-    if (type != null && !type.isVisited()) {
-      type.visit(getContext());
+    final Type indexed = index.get(path);
+    if (indexed != null && indexed.isVisited()) return indexed;
+
+    visitLock.lock();
+    try {
+      Type type = indexed;
+      if (type == null) {
+        // not indexed (yet), i.e. renamed or never visited -- search the graph the slow way
+        type = Type.findTypeIn(path, this.getCollected());
+        if (type != null) index.put(path, type);
+      }
+
+      if (type != null && !type.isVisited()) {
+        type.visit(getContext().fork());
+        index.index(type);
+      }
+
+      return type;
+    }
+    finally {
+      visitLock.unlock();
     }
+  }
 
-    return type;
+  /* what a found node lists: the props of a composed or a union that has any, its children otherwise. A copy
+   * taken under the visit lock, so it's never read whilst another request is visiting the node */
+  public List<Type> listChildren(final Type type) {
+    visitLock.lock();
+    try {
+      if ((type instanceof Composed || type instanceof Union) && !type.getProps().isEmpty()) {
+        return new ArrayList<>(type.getProps().values());
+      }
+      return new ArrayList<>(type.getChildren());
+    }
+    finally {
+      visitLock.unlock();
+    }
+  }
+
+  /* paths visited by the generations so far, see ConnectorGen.setReusable */
+  public VisitedPaths getGenerated() {
+    return generated;
+  }
+
+  /* type definitions rendered by the generations so far, see ConnectorGen.setFragments */
+  public FragmentCache getFragments() {
+    return fragments;
+  }
+
+  /* what the generations so far keep hold of, on top of the parsed spec and the visited session graph */
+  public long estimateRetainedBytes() {
+    return generated.estimateBytes() + fragments.estimateBytes();
   }
 
   public void writeSchema(Writer writer, final Prompt prompt) throws IOException {
+    writeSchema(writer, prompt, ConnectorGen.Progress.NONE);
+  }
+
+  public void writeSchema(Writer writer, final Prompt prompt, final ConnectorGen.Progress progress) throws IOException {
     final ConnectorGen gen = new ConnectorGen(getParser(), prompt); // reuse parser
+    gen.setProgress(progress);
+    gen.setReusable(generated); // and the paths visited by earlier generations
+    gen.setFragments(fragments);
     gen.visit();
     gen.writeSchema(writer);
   }
@@ -1,7 +1,7 @@
 package com.apollographql.oas.gen.context;
 
-import com.apollographql.oas.gen.naming.Naming;
 import com.apollographql.oas.gen.nodes.Type;
+import com.apollographql.oas.gen.output.SchemaWriter;
 import com.apollographql.oas.gen.prompt.Prompt;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.media.Schema;
@@ -11,23 +11,83 @@ import java.util.*;
 
 import static com.apollographql.oas.gen.log.Trace.trace;
 
+/* a single traversal over a spec: the stack of types being visited and the indentation used when writing.
+ * Shared state lives in the TypeRegistry, so several contexts (one per thread) can traverse the same spec. */
 public class Context {
-  private static final String COMPONENTS_SCHEMAS = "#/components/schemas/";
-  public static final String COMPONENTS_RESPONSES = "#/components/responses/";
+  public static final String COMPONENTS_RESPONSES = TypeRegistry.COMPONENTS_RESPONSES;
 
-  private final OpenAPI parser;
-  private final Map<String, Type> types = new TreeMap<>();
+  // stores from sequential traversals always win, see TypeRegistry.store
+  private static final int SEQUENTIAL = Integer.MAX_VALUE;
+
+  private final TypeRegistry registry;
+  private final int ordinal;
 
   private final Set<String> generatedSet = new LinkedHashSet<>();
 
-  private final Stack<Type> stack = new Stack<>();
+  private final Deque<Type> stack = new ArrayDeque<>();
+
+  // what's on the stack, so inContextOf doesn't have to walk it
+  private final Map<Class<?>, Integer> classesOnStack = new HashMap<>();
+  private final Map<Type, Integer> typesOnStack = new IdentityHashMap<>();
   private Prompt prompt;
 
+  // Type.dependencies results, when memoised (see memoising)
+  private Map<Type, Set<Type>> dependencyCache;
+
+  // what each path stores and reads, when recorded (see PathTrails)
+  private PathTrails trails;
+
   public int indent = 0;
 
   public Context(final OpenAPI parser, final Prompt prompt) {
-    this.parser = parser;
+    this(new TypeRegistry(parser), prompt);
+  }
+
+  public Context(final TypeRegistry registry, final Prompt prompt) {
+    this(registry, prompt, SEQUENTIAL);
+  }
+
+  private Context(final TypeRegistry registry, final Prompt prompt, final int ordinal) {
+    this.registry = registry;
     this.prompt = prompt;
+    this.ordinal = ordinal;
+  }
+
+  /* a traversal recording what each path does, stores are then ordered by path rather than by time */
+  public Context(final TypeRegistry registry, final Prompt prompt, final PathTrails trails) {
+    this(registry, prompt, SEQUENTIAL);
+    this.trails = trails;
+  }
+
+  /* a new, empty traversal over the same registry */
+  public Context fork() {
+    return fork(ordinal);
+  }
+
+  /* a new traversal whose stores are ordered by the given ordinal, for traversals running concurrently */
+  public Context fork(final int ordinal) {
+    final Context context = new Context(registry, prompt, ordinal);
+    context.trails = trails;
+    return context;
+  }
+
+  /* a new traversal that memoises Type.dependencies, for passes that only read the visited graph */
+  public Context memoising() {
+    final Context context = fork(ordinal);
+    context.dependencyCache = new IdentityHashMap<>();
+    return context;
+  }
+
+  public PathTrails getTrails() {
+    return trails;
+  }
+
+  public Map<Type, Set<Type>> getDependencyCache() {
+    return dependencyCache;
+  }
+
+  public TypeRegistry getRegistry() {
+    return registry;
   }
 
   public int getIndent() {
@@ -39,10 +99,15 @@ public class Context {
   }
 
   public Map<String, Type> getTypes() {
-    return types;
+    return registry.getTypes();
   }
 
-  public Stack<Type> getStack() {
+  /* the indentation for the current depth when selecting, a cached string */
+  public String indentation() {
+    return SchemaWriter.indent(getIndent() + getStack().size());
+  }
+
+  public Deque<Type> getStack() {
     return stack;
   }
 
@@ -56,13 +121,17 @@ public class Context {
     }
 
     this.stack.push(type);
+    classesOnStack.merge(type.getClass(), 1, Integer::sum);
+    typesOnStack.merge(type, 1, Integer::sum);
     // trace(this, ">>> [context::enter(" + getStack().size() + ")]",  "in: " + type.id());
     return true;
   }
 
   public void leave(final Type type) {
     // trace(this, "<<< [context::leave(" + getStack().size() + ")]", "out: " + type.id());
-    this.stack.pop();
+    final Type top = this.stack.pop();
+    classesOnStack.computeIfPresent(top.getClass(), (k, count) -> count > 1 ? count - 1 : null);
+    typesOnStack.computeIfPresent(top, (k, count) -> count > 1 ? count - 1 : null);
   }
 
   public int size() {
@@ -78,40 +147,55 @@ public class Context {
   }
 
   public Schema<?> lookupRef(final String ref) {
-    if (ref.startsWith(COMPONENTS_SCHEMAS)) {
-      return parser.getComponents().getSchemas().get(Naming.getRefName(ref));
-    }
-
-    return null;
+    return registry.lookupRef(ref);
   }
 
   public ApiResponse lookupResponse(final String ref) {
-    if (ref.startsWith(COMPONENTS_RESPONSES)) {
-      return parser.getComponents().getResponses().get(Naming.getRefName(ref));
-    }
+    return registry.lookupResponse(ref);
+  }
 
-    return null;
+  public String getRefName(final String ref) {
+    return registry.getRefIndex().getRefName(ref);
   }
 
   public void store(final String name, final Type type) {
-    trace(this, "[context::store]", "store " + type.id());
-    this.types.put(name, type);
+    trace(this, "[context::store]", () -> "store " + type.id());
+    if (trails != null) {
+      trails.stored(name, type);
+      registry.store(name, type, trails.ordinal(type));
+    }
+    else {
+      registry.store(name, type, ordinal);
+    }
   }
 
   public Type get(final String name) {
-    if (this.types.containsKey(name)) {
-      trace(this, " [context::inc]", "cached => " + name);
+    // reads from outside a traversal (i.e. when planning the output) don't shape any path
+    if (trails != null && !stack.isEmpty()) trails.read(stack.peek());
+
+    final Type type = registry.get(name);
+    if (type != null) {
+      trace(this, " [context::inc]", () -> "cached => " + name);
     }
 
-    return this.types.get(name);
+    return type;
   }
 
+  /* is there a type on the stack, other than the given one, whose class is clazz or one of its superclasses */
   public boolean inContextOf(final Class<?> clazz, final Type type) {
-    return getStack().stream()
-      .anyMatch(t -> t != type && t.getClass().isAssignableFrom(clazz));
+    for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+      int count = classesOnStack.getOrDefault(c, 0);
+      if (count > 0 && type.getClass() == c) {
+        count -= typesOnStack.getOrDefault(type, 0);
+      }
+
+      if (count > 0) return true;
+    }
+
+    return false;
   }
 
   public boolean isVisiting(final Type type) {
-    return type.getParent() != null && Type.getAncestors(type.getParent()).contains(type);
+    return type.getParent() != null && Type.hasEqualAncestor(type.getParent(), type);
   }
 }
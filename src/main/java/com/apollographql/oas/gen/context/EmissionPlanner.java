@@ -0,0 +1,56 @@
+package com.apollographql.oas.gen.context;
+
+import com.apollographql.oas.gen.nodes.Type;
+
+import java.util.*;
+
+/* decides which stored types make it into the schema, and in what order. Only the types reachable from the
+ * collected operations are looked up, the rest of the registry (everything else that was visited) isn't touched */
+public class EmissionPlanner {
+  public enum Order {
+    /* by name, like the stored types are kept */
+    ALPHABETICAL,
+    /* each type before the types it references */
+    TOPOLOGICAL,
+    /* most referenced first, by name on ties */
+    REF_COUNT
+  }
+
+  public record Plan(Map<String, Integer> refs, List<Type> types) {
+  }
+
+  private final Context context;
+  private final Order order;
+
+  public EmissionPlanner(final Context context, final Order order) {
+    this.context = context;
+    this.order = order;
+  }
+
+  public Plan plan(final Collection<Type> collected) {
+    final RefCounter counter = new RefCounter(context);
+    counter.addAll(collected);
+
+    final Map<String, Integer> refs = counter.getCount();
+
+    final List<String> names = switch (order) {
+      case ALPHABETICAL -> new ArrayList<>(new TreeSet<>(refs.keySet()));
+      case TOPOLOGICAL -> new ArrayList<>(counter.getTopologicalOrder());
+      case REF_COUNT -> refs.keySet().stream()
+        .sorted(Comparator.comparing((String name) -> refs.get(name)).reversed()
+          .thenComparing(Comparator.naturalOrder()))
+        .toList();
+    };
+
+    final List<Type> types = new ArrayList<>(names.size());
+    for (final String name : names) {
+      // refs also count operations, responses, etc. only stored types are emitted
+      final Type type = context.get(name);
+      if (type != null && name.equals(type.getName())) {
+        types.add(type);
+      }
+    }
+
+    return new Plan(refs, types);
+  }
+}
@@ -0,0 +1,118 @@
+package com.apollographql.oas.gen.context;
+
+import com.apollographql.oas.gen.nodes.*;
+import com.apollographql.oas.gen.nodes.props.*;
+import com.apollographql.oas.web.cache.LruCache;
+import io.swagger.v3.oas.models.media.Schema;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* rendered type definitions by (type, selection fingerprint), shared by the generations over one spec. A type
+ * written at the top of the schema renders from its name and its selected props alone, so a definition whose
+ * props have the same names, schemas and values renders to the same text, whichever node or path it came from.
+ * Schemas are compared by identity: they come from the one parsed spec, and carry the descriptions. The least
+ * recently used definitions go once there are more than maxEntries. */
+public class FragmentCache {
+  private static final int KEY_BYTES = 256;
+
+  private final LruCache<Key, String> fragments;
+  private final AtomicLong chars = new AtomicLong();
+
+  public FragmentCache(final int maxEntries) {
+    this.fragments = new LruCache<>(maxEntries, (key, text) -> chars.addAndGet(-text.length()));
+  }
+
+  /* the key of the type's definition, or null when it renders from more than that: a oneOf (rendered as its
+   * first child), anything else than an object, allOf, union or enum, or when written within another type */
+  public static Key key(final Context context, final Type type) {
+    if (context.size() > 0) return null;
+
+    final List<Object> parts = new ArrayList<>();
+    if (type instanceof En en) {
+      parts.addAll(en.getItems());
+    }
+    else if (type instanceof Union union) {
+      for (final Type child : union.getChildren()) parts.add(child.getName());
+      addProps(parts, union);
+    }
+    else if (type instanceof Composed composed) {
+      if (composed.getSchema().getOneOf() != null || composed.getSchema().getAllOf() == null) return null;
+      addProps(parts, composed);
+    }
+    else if (type instanceof Obj) {
+      addProps(parts, type);
+    }
+    else {
+      return null;
+    }
+
+    return new Key(type.getClass(), type.getName(), parts);
+  }
+
+  private static void addProps(final List<Object> parts, final Type type) {
+    for (final Prop prop : type.getProps().values()) {
+      parts.add(part(prop));
+    }
+  }
+
+  private static Part part(final Prop prop) {
+    String value = null;
+    Part items = null;
+
+    if (prop instanceof PropScalar scalar) {
+      value = scalar.getType();
+    }
+    else if (prop instanceof PropRef ref) {
+      // written as the ref's name, or as a list of the items of an array it points to
+      value = ref.getRefType() instanceof Array array && array.getItemsType() != null
+        ? "[" + array.getItemsType().getName() + "]"
+        : ref.getRefType() != null ? ref.getRefType().getName() : ref.getRef();
+    }
+    else if (prop instanceof PropArray array) {
+      items = array.getItems() != null ? part(array.getItems()) : null;
+    }
+
+    return new Part(prop.getClass(), prop.getName(), prop.isRequired(), prop.getSchema(), value, items);
+  }
+
+  /* the rendered definition, or null */
+  public String get(final Key key) {
+    return fragments.get(key);
+  }
+
+  public void put(final Key key, final String text) {
+    if (fragments.putIfAbsent(key, text) == null) chars.addAndGet(text.length());
+  }
+
+  /* a rough estimate of the heap the cache keeps hold of, the texts plus a fingerprint per entry */
+  public long estimateBytes() {
+    return 2 * chars.get() + (long) size() * KEY_BYTES;
+  }
+
+  public int size() {
+    return fragments.size();
+  }
+
+  public Map<String, Object> stats() {
+    return fragments.stats();
+  }
+
+  public record Key(Class<?> kind, String name, List<Object> parts) {
+  }
+
+  private record Part(Class<?> kind, String name, boolean required, Schema<?> schema, String value, Part items) {
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Part part)) return false;
+      return kind == part.kind && required == part.required && schema == part.schema
+        && name.equals(part.name) && Objects.equals(value, part.value) && Objects.equals(items, part.items);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(kind, name, required, System.identityHashCode(schema), value, items);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.apollographql.oas.gen.context;
+
+import com.apollographql.oas.gen.nodes.Type;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* node path -> node, for the nodes reachable from the visited paths. Nodes are added as subtrees get visited,
+ * in the same order Type.findTypeIn searches them, so the first node with a given path wins like it does there */
+public class PathIndex {
+  private final Map<String, Type> nodes = new ConcurrentHashMap<>();
+
+  /* indexes the type and everything below it */
+  public void index(final Type type) {
+    index(List.of(type));
+  }
+
+  private void index(final Collection<Type> collection) {
+    for (final Type type : collection) {
+      nodes.putIfAbsent(type.path(), type);
+    }
+
+    for (final Type type : collection) {
+      for (final Type prop : type.getProps().values()) {
+        nodes.putIfAbsent(prop.path(), prop);
+      }
+    }
+
+    for (final Type type : collection) {
+      index(type.getChildren());
+    }
+  }
+
+  /* the node with the given path, or null when it isn't indexed (or was renamed since) */
+  public Type get(final String path) {
+    final Type type = nodes.get(path);
+    return type != null && type.path().equals(path) ? type : null;
+  }
+
+  public void put(final String path, final Type type) {
+    nodes.put(path, type);
+  }
+
+  public int size() {
+    return nodes.size();
+  }
+}
@@ -0,0 +1,254 @@
+package com.apollographql.oas.gen.context;
+
+import com.apollographql.oas.gen.nodes.Type;
+import com.apollographql.oas.gen.prompt.Input;
+import com.apollographql.oas.gen.prompt.Prompt;
+
+import java.util.*;
+
+/* what a generation did per GET path: the prompts answered under it and the types it stored, split in the ones
+ * stored whilst visiting and the ones stored whilst writing (lazy visits from the dependency pass). That's all
+ * a path contributes to the registry, so a visited path can be reused by a later generation whose prompt gives
+ * the same answers, by replaying its stores (see VisitedPaths). The operation rendered from it is kept too, so
+ * changing an answer only re-renders the operation of the path it was asked under.
+ *
+ * Stores are ordered by (phase, path index) rather than by time, which is the same order a sequential
+ * generation stores them in, but lets replayed paths take their place without being visited again. */
+public class PathTrails {
+  public enum Phase {VISIT, WRITE}
+
+  private final Map<String, Trail> trails = new LinkedHashMap<>();
+  private final Map<String, Integer> indexes = new HashMap<>();
+  private final int paths;
+
+  private Phase phase = Phase.VISIT;
+  private int reused;
+  private boolean diverged;
+
+  private int operationsReused;
+  private int operationsRendered;
+
+  /* the number of GET paths in the spec, selected or not */
+  public PathTrails(final int paths) {
+    this.paths = paths;
+  }
+
+  /* records the answers given by the prompt under the path they were asked for */
+  public Prompt wrap(final Prompt prompt) {
+    return Prompt.create(new Input() {
+      @Override
+      public boolean yesNo(final String id, final String message) {
+        final boolean answer = prompt.yesNo(id, message);
+        answered(new Answer(id, message, false, answer ? 'y' : 'n'));
+        return answer;
+      }
+
+      @Override
+      public char yesNoSelect(final String id, final String message) {
+        final char answer = prompt.yesNoSelect(id, message);
+        answered(new Answer(id, message, true, answer));
+        return answer;
+      }
+
+      @Override
+      public boolean isConcurrent() {
+        return prompt.getInput().isConcurrent();
+      }
+    });
+  }
+
+  /* a path about to be visited, root is the id of its operation */
+  public Trail begin(final String root, final int index) {
+    final Trail trail = new Trail(root);
+    trails.put(root, trail);
+    indexes.put(root, index);
+    return trail;
+  }
+
+  /* takes a trail from an earlier generation instead of visiting the path, replaying its visit stores */
+  public void reuse(final Trail trail, final int index, final TypeRegistry registry) {
+    trails.put(trail.root, trail);
+    indexes.put(trail.root, index);
+    reused++;
+
+    for (final Stored stored : trail.visitStores) {
+      registry.store(stored.name(), stored.type(), index);
+    }
+  }
+
+  /* visiting is done: replays the write stores of the reused paths, the others happen when writing */
+  public void write(final TypeRegistry registry) {
+    phase = Phase.WRITE;
+
+    for (final Trail trail : trails.values()) {
+      if (!trail.complete) continue;
+
+      final int ordinal = paths + indexes.get(trail.root);
+      for (final Stored stored : trail.writeStores) {
+        registry.store(stored.name(), stored.type(), ordinal);
+      }
+    }
+  }
+
+  /* the trails recorded by this generation, marked complete so they can be reused */
+  public List<Trail> finish() {
+    final List<Trail> recorded = new ArrayList<>();
+    for (final Trail trail : trails.values()) {
+      if (trail.complete) continue;
+
+      trail.complete = true;
+      recorded.add(trail);
+    }
+
+    return recorded;
+  }
+
+  public int getReused() {
+    return reused;
+  }
+
+  /* the trail of the path the type was reached from, if it's one of this generation's */
+  public Trail trail(final Type type) {
+    return trails.get(Type.getRoot(type).id());
+  }
+
+  public void reused() {
+    operationsReused++;
+  }
+
+  public void rendered() {
+    operationsRendered++;
+  }
+
+  public int getOperationsReused() {
+    return operationsReused;
+  }
+
+  public int getOperationsRendered() {
+    return operationsRendered;
+  }
+
+  /* something happened that replaying can't reproduce, i.e. a lazy visit reading the registry whilst writing
+   * (it would see the replayed stores of later paths) or a reused path being visited again */
+  public boolean isDiverged() {
+    return diverged;
+  }
+
+  int ordinal(final Type type) {
+    final Integer index = indexes.get(Type.getRoot(type).id());
+    if (index == null) {
+      diverged = true;
+      return phase == Phase.VISIT ? paths - 1 : 2 * paths - 1;
+    }
+
+    return phase == Phase.VISIT ? index : paths + index;
+  }
+
+  void stored(final String name, final Type type) {
+    final Trail trail = trails.get(Type.getRoot(type).id());
+    if (trail == null || trail.complete) {
+      diverged = true;
+      return;
+    }
+
+    (phase == Phase.VISIT ? trail.visitStores : trail.writeStores).add(new Stored(name, type));
+  }
+
+  void read(final Type visiting) {
+    final Trail trail = trails.get(Type.getRoot(visiting).id());
+    if (trail != null && !trail.complete) trail.readsRegistry = true;
+
+    if (phase == Phase.WRITE || trail == null || trail.complete) diverged = true;
+  }
+
+  private void answered(final Answer answer) {
+    final int end = answer.id().indexOf('>');
+    final Trail trail = trails.get(end < 0 ? answer.id() : answer.id().substring(0, end));
+
+    if (trail == null) return; // the path selection itself
+    if (trail.complete) {
+      diverged = true;
+      return;
+    }
+
+    trail.answers.add(answer);
+  }
+
+  public static final class Trail {
+    private static final int NODE_BYTES = 512;
+
+    private final String root;
+    private final List<Answer> answers = new ArrayList<>();
+    private final List<Stored> visitStores = new ArrayList<>();
+    private final List<Stored> writeStores = new ArrayList<>();
+    private boolean readsRegistry;
+    private volatile boolean complete;
+    private Type type;
+
+    // rendered operations, by node -- generations reusing the path share them. Type definitions are kept by
+    // what they render from instead, see FragmentCache
+    private final Map<Type, String> operations = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private Trail(final String root) {
+      this.root = root;
+    }
+
+    public String getRoot() {
+      return root;
+    }
+
+    public Type getType() {
+      return type;
+    }
+
+    public void setType(final Type type) {
+      this.type = type;
+    }
+
+    /* a path whose types came from the registry depends on the paths visited before it */
+    public boolean isReusable() {
+      return complete && !readsRegistry && type != null;
+    }
+
+    /* whether the prompt gives the same answers, asking them in the original order */
+    public boolean replays(final Prompt prompt) {
+      for (final Answer answer : answers) {
+        final char given = answer.select()
+          ? prompt.yesNoSelect(answer.id(), answer.message())
+          : prompt.yesNo(answer.id(), answer.message()) ? 'y' : 'n';
+
+        if (given != answer.answer()) return false;
+      }
+
+      return true;
+    }
+
+    public int size() {
+      return answers.size();
+    }
+
+    /* a rough estimate of the heap the trail keeps hold of: a visited node per answer and store, and the
+     * rendered operations */
+    public long estimateBytes() {
+      long bytes = (long) (answers.size() + visitStores.size() + writeStores.size()) * NODE_BYTES;
+      synchronized (operations) {
+        for (final String text : operations.values()) bytes += 2L * text.length();
+      }
+      return bytes;
+    }
+
+    public String getOperation(final Type type) {
+      return operations.get(type);
+    }
+
+    public void putOperation(final Type type, final String text) {
+      operations.put(type, text);
+    }
+  }
+
+  private record Answer(String id, String message, boolean select, char answer) {
+  }
+
+  private record Stored(String name, Type type) {
+  }
+}
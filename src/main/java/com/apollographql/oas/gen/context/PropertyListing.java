@@ -0,0 +1,29 @@
+package com.apollographql.oas.gen.context;
+
+import io.swagger.v3.oas.models.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+/* an object's properties in visiting order, which doesn't depend on where the object occurs. Memoised per
+ * schema in the TypeRegistry, so a component reached through many paths is only sorted once. Only the order is
+ * shared: the props themselves (and the prompt listing them) are built and visited per occurrence, as prompt
+ * ids are node paths. Node count and visit time grow with the occurrences, not the schemas. */
+@SuppressWarnings("rawtypes")
+public record PropertyListing(List<Map.Entry<String, Schema>> properties) {
+
+  /* schemas are compared by identity, Schema.equals/hashCode walk the whole schema */
+  record Key(Schema schema) {
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key key)) return false;
+      return schema == key.schema;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(schema);
+    }
+  }
+}
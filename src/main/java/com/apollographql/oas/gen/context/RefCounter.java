@@ -6,9 +6,14 @@ import com.apollographql.oas.gen.nodes.props.Prop;
 
 import java.util.*;
 
+/* counts how many times each named type is reached when walking the dependencies of the given types, one
+ * walk per reference path. Rather than walking every path, the dependency graph is built once (each type is
+ * asked for its dependencies a single time) and the counts are propagated over its strongly connected
+ * components in topological order, so this is linear in the size of the graph. */
 public class RefCounter {
   public RefCounter(final Context context) {
     this.count = new LinkedHashMap<>();
+    this.topological = new LinkedHashSet<>();
     this.context = context;
   }
 
@@ -16,45 +21,244 @@ public class RefCounter {
 
   private final Map<String, Integer> count;
 
+  private final Set<String> topological;
+
   public Context getContext() {
     return context;
   }
 
   public void add(Type type) {
-    inc(type);
+    inc(type, 1);
   }
 
-  private void inc(Type type) {
+  private void inc(final Type type, final long times) {
     if (type instanceof Prop || type instanceof Scalar) return;
 
-    final String name = type.getName();
+    inc(type.getName(), times);
+  }
+
+  private void inc(final String name, final long times) {
     if (name == null) return;
 
-    Integer value = count.get(name);
-    if (value != null) {
-      count.put(name, ++value);
-    }
-    else {
-      count.put(name, 1);
-    }
+    count.merge(name, (int) Math.min(times, Integer.MAX_VALUE), RefCounter::sum);
   }
 
   public void count(final Type type) {
-    add(type);
-
-    final Set<Type> dependencies = type.dependencies(getContext());
-    for (final Type child : dependencies) {
-      count(child);
-    }
+    addAll(List.of(type));
   }
 
   public Map<String, Integer> getCount() {
     return this.count;
   }
 
+  /* the counted names, each one before the names it depends on */
+  public Set<String> getTopologicalOrder() {
+    return this.topological;
+  }
+
   public void addAll(final Collection<Type> types) {
+    final Graph graph = new Graph(context.memoising());
     for (Type type : types) {
-      count(type);
+      graph.root(type);
+    }
+
+    final long[] calls = graph.calls();
+    for (int i = 0; i < graph.nodes.size(); i++) {
+      final Type type = graph.nodes.get(i);
+      if (type instanceof Prop || type instanceof Scalar) continue;
+
+      inc(graph.names.get(i), calls[i]);
+    }
+
+    for (final int i : graph.order) {
+      final Type type = graph.nodes.get(i);
+      if (type instanceof Prop || type instanceof Scalar || graph.names.get(i) == null) continue;
+
+      topological.add(graph.names.get(i));
+    }
+  }
+
+  private static int sum(final int a, final int b) {
+    return (int) Math.min((long) a + b, Integer.MAX_VALUE);
+  }
+
+  /* the dependency graph, nodes numbered in the order the recursive walk first reaches them */
+  private static class Graph {
+    private final Context context;
+
+    private final Map<Type, Integer> ids = new IdentityHashMap<>();
+    private final List<Type> nodes = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<List<Integer>> edges = new ArrayList<>();
+    private final List<Integer> roots = new ArrayList<>();
+    private final List<Integer> order = new ArrayList<>();
+
+    Graph(final Context context) {
+      this.context = context;
+    }
+
+    void root(final Type type) {
+      final Integer id = ids.get(type);
+      roots.add(id != null ? id : discover(type));
+    }
+
+    /* depth first, asking each type for its dependencies when it's first reached, like the recursive walk did */
+    private int discover(final Type root) {
+      final int first = node(root);
+
+      final Deque<Iterator<Type>> stack = new ArrayDeque<>();
+      final Deque<Integer> owners = new ArrayDeque<>();
+      stack.push(root.dependencies(context).iterator());
+      owners.push(first);
+
+      while (!stack.isEmpty()) {
+        final Iterator<Type> iterator = stack.peek();
+        if (!iterator.hasNext()) {
+          stack.pop();
+          owners.pop();
+          continue;
+        }
+
+        final Type child = iterator.next();
+        final Integer known = ids.get(child);
+        final int id = known != null ? known : node(child);
+        edges.get(owners.peek()).add(id);
+
+        if (known == null) {
+          stack.push(child.dependencies(context).iterator());
+          owners.push(id);
+        }
+      }
+
+      return first;
+    }
+
+    private int node(final Type type) {
+      final int id = nodes.size();
+      ids.put(type, id);
+      nodes.add(type);
+      names.add(type.getName());
+      edges.add(new ArrayList<>());
+      return id;
+    }
+
+    /* how many times the recursive walk would have reached each node: the times it's a root, plus the times
+     * each of the nodes depending on it was reached. A cycle would have been walked forever, saturate it */
+    long[] calls() {
+      final int n = nodes.size();
+      final long[] calls = new long[n];
+      for (final int root : roots) {
+        calls[root] = saturate(calls[root] + 1);
+      }
+
+      final List<int[]> components = components();
+      // Tarjan completes components after everything they depend on, walk them backwards
+      for (int c = components.size() - 1; c >= 0; c--) {
+        final int[] component = components.get(c);
+        for (int i = component.length - 1; i >= 0; i--) order.add(component[i]);
+
+        if (isCycle(component)) {
+          boolean reached = false;
+          for (final int v : component) reached |= calls[v] > 0;
+          if (reached) {
+            for (final int v : component) calls[v] = Integer.MAX_VALUE;
+          }
+        }
+
+        for (final int v : component) {
+          for (final int w : edges.get(v)) {
+            if (component.length == 1 && w == v) continue;
+            if (contains(component, w)) continue;
+            calls[w] = saturate(calls[w] + calls[v]);
+          }
+        }
+      }
+
+      return calls;
+    }
+
+    private boolean isCycle(final int[] component) {
+      if (component.length > 1) return true;
+
+      for (final int w : edges.get(component[0])) {
+        if (w == component[0]) return true;
+      }
+      return false;
+    }
+
+    private static boolean contains(final int[] component, final int v) {
+      if (component.length == 1) return component[0] == v;
+
+      for (final int w : component) {
+        if (w == v) return true;
+      }
+      return false;
+    }
+
+    private static long saturate(final long value) {
+      return Math.min(value, Integer.MAX_VALUE);
+    }
+
+    /* strongly connected components (iterative Tarjan), each one completed after the ones it points to */
+    private List<int[]> components() {
+      final int n = nodes.size();
+      final int[] index = new int[n];
+      final int[] low = new int[n];
+      final int[] next = new int[n];
+      final boolean[] onStack = new boolean[n];
+      Arrays.fill(index, -1);
+
+      final List<int[]> result = new ArrayList<>();
+      final Deque<Integer> stack = new ArrayDeque<>();
+      final Deque<Integer> work = new ArrayDeque<>();
+      int counter = 0;
+
+      for (int start = 0; start < n; start++) {
+        if (index[start] >= 0) continue;
+
+        work.push(start);
+        while (!work.isEmpty()) {
+          final int v = work.peek();
+          if (index[v] < 0) {
+            index[v] = low[v] = counter++;
+            stack.push(v);
+            onStack[v] = true;
+          }
+
+          final List<Integer> out = edges.get(v);
+          if (next[v] < out.size()) {
+            final int w = out.get(next[v]++);
+            if (index[w] < 0) {
+              work.push(w);
+            }
+            else if (onStack[w]) {
+              low[v] = Math.min(low[v], index[w]);
+            }
+            continue;
+          }
+
+          work.pop();
+          if (!work.isEmpty()) {
+            final int parent = work.peek();
+            low[parent] = Math.min(low[parent], low[v]);
+          }
+
+          if (low[v] == index[v]) {
+            final List<Integer> component = new ArrayList<>();
+            int w;
+            do {
+              w = stack.pop();
+              onStack[w] = false;
+              component.add(w);
+            }
+            while (w != v);
+
+            result.add(component.stream().mapToInt(Integer::intValue).toArray());
+          }
+        }
+      }
+
+      return result;
     }
   }
 }
@@ -0,0 +1,105 @@
+package com.apollographql.oas.gen.context;
+
+import com.apollographql.oas.gen.naming.Naming;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.apollographql.oas.gen.context.TypeRegistry.COMPONENTS_RESPONSES;
+import static com.apollographql.oas.gen.context.TypeRegistry.COMPONENTS_SCHEMAS;
+
+/* raw $ref string -> component and its simple name, built once per spec. Resolving a ref used to run the name
+ * converter chain and probe the components map on every visit, now it's a single hash lookup. Refs that are
+ * not in the index (i.e. not pointing at a declared component) are resolved the old way and remembered. */
+public class RefIndex {
+  private final Components components;
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  private final AtomicLong served = new AtomicLong();
+  private final AtomicLong computed = new AtomicLong();
+
+  public RefIndex(final OpenAPI parser) {
+    this.components = parser.getComponents();
+
+    if (components != null && components.getSchemas() != null) {
+      for (final String name : components.getSchemas().keySet()) {
+        final String ref = COMPONENTS_SCHEMAS + name;
+        entries.put(ref, resolve(ref));
+      }
+    }
+
+    if (components != null && components.getResponses() != null) {
+      for (final String name : components.getResponses().keySet()) {
+        final String ref = COMPONENTS_RESPONSES + name;
+        entries.put(ref, resolve(ref));
+      }
+    }
+  }
+
+  public Schema<?> lookupRef(final String ref) {
+    return entry(ref).schema();
+  }
+
+  public ApiResponse lookupResponse(final String ref) {
+    return entry(ref).response();
+  }
+
+  /* same as Naming.getRefName */
+  public String getRefName(final String ref) {
+    return ref != null ? entry(ref).name() : "";
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public long getServed() {
+    return served.get();
+  }
+
+  public Map<String, Object> stats() {
+    final Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("size", size());
+    stats.put("served", served.get());
+    stats.put("computed", computed.get());
+    return stats;
+  }
+
+  private Entry entry(final String ref) {
+    final Entry entry = entries.get(ref);
+    if (entry != null) {
+      served.incrementAndGet();
+      return entry;
+    }
+
+    return entries.computeIfAbsent(ref, this::resolve);
+  }
+
+  /* the lookup as it was done before the index: the components are looked up by the converted name */
+  private Entry resolve(final String ref) {
+    computed.incrementAndGet();
+
+    final String name = Naming.getRefName(ref);
+    Schema<?> schema = null;
+    ApiResponse response = null;
+
+    if (ref.startsWith(COMPONENTS_SCHEMAS)) {
+      schema = components.getSchemas().get(name);
+    }
+    else if (ref.startsWith(COMPONENTS_RESPONSES)) {
+      response = components.getResponses().get(name);
+    }
+
+    return new Entry(name, schema, response);
+  }
+
+  private record Entry(String name, Schema<?> schema, ApiResponse response) {
+  }
+}
@@ -0,0 +1,138 @@
+package com.apollographql.oas.gen.context;
+
+import com.apollographql.oas.gen.nodes.Type;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/* state shared by every traversal of a spec: the parsed spec itself and the types stored whilst visiting it.
+ * Traversals (see Context) can run on different threads against the same registry. */
+public class TypeRegistry {
+  static final String COMPONENTS_SCHEMAS = "#/components/schemas/";
+  static final String COMPONENTS_RESPONSES = "#/components/responses/";
+
+  private final OpenAPI parser;
+  private final RefIndex refs;
+  private final ConcurrentNavigableMap<String, Stored> types = new ConcurrentSkipListMap<>();
+
+  private final Map<PropertyListing.Key, PropertyListing> listings = new ConcurrentHashMap<>();
+  private final AtomicLong listingHits = new AtomicLong();
+
+  public TypeRegistry(final OpenAPI parser) {
+    this.parser = parser;
+    this.refs = new RefIndex(parser);
+  }
+
+  public OpenAPI getParser() {
+    return parser;
+  }
+
+  public RefIndex getRefIndex() {
+    return refs;
+  }
+
+  /* a store from a traversal with a lower ordinal never replaces one from a higher ordinal, so concurrent
+   * traversals end up with the same types as if they had run one after another, in ordinal order */
+  public void store(final String name, final Type type, final int ordinal) {
+    types.merge(name, new Stored(type, ordinal),
+      (current, candidate) -> current.ordinal() > candidate.ordinal() ? current : candidate);
+  }
+
+  public Type get(final String name) {
+    final Stored stored = types.get(name);
+    return stored != null ? stored.type() : null;
+  }
+
+  public boolean contains(final String name) {
+    return types.containsKey(name);
+  }
+
+  /* a live, read-only view of the stored types in name order (the skip list keeps them sorted), nothing is
+   * copied */
+  public Map<String, Type> getTypes() {
+    return view;
+  }
+
+  private final Map<String, Type> view = new AbstractMap<>() {
+    @Override
+    public Type get(final Object name) {
+      final Stored stored = types.get(name);
+      return stored != null ? stored.type() : null;
+    }
+
+    @Override
+    public boolean containsKey(final Object name) {
+      return types.containsKey(name);
+    }
+
+    @Override
+    public Set<Entry<String, Type>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, Type>> iterator() {
+          final Iterator<Entry<String, Stored>> entries = types.entrySet().iterator();
+          return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+              return entries.hasNext();
+            }
+
+            @Override
+            public Entry<String, Type> next() {
+              final Entry<String, Stored> entry = entries.next();
+              return new SimpleImmutableEntry<>(entry.getKey(), entry.getValue().type());
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return types.size();
+        }
+      };
+    }
+  };
+
+  public Schema<?> lookupRef(final String ref) {
+    return refs.lookupRef(ref);
+  }
+
+  public ApiResponse lookupResponse(final String ref) {
+    return refs.lookupResponse(ref);
+  }
+
+  /* the listing of an object's properties, built once per schema */
+  @SuppressWarnings("rawtypes")
+  public PropertyListing getListing(final Schema schema, final Supplier<PropertyListing> builder) {
+    final PropertyListing.Key key = new PropertyListing.Key(schema);
+
+    final PropertyListing listing = listings.get(key);
+    if (listing != null) {
+      listingHits.incrementAndGet();
+      return listing;
+    }
+
+    final PropertyListing built = builder.get();
+    final PropertyListing existing = listings.putIfAbsent(key, built);
+    return existing != null ? existing : built;
+  }
+
+  public Map<String, Object> stats() {
+    final Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("types", types.size());
+    stats.put("listings", listings.size());
+    stats.put("listingHits", listingHits.get());
+    stats.put("refs", refs.stats());
+    return stats;
+  }
+
+  private record Stored(Type type, int ordinal) {
+  }
+}
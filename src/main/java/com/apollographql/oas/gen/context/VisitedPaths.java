@@ -0,0 +1,54 @@
+package com.apollographql.oas.gen.context;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* the visited GET paths of earlier generations over the same spec, latest one per path, see PathTrails. A
+ * reused path is only ever read, so several generations can share it. */
+public class VisitedPaths {
+  private final Map<String, PathTrails.Trail> trails = new ConcurrentHashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /* the trail recorded for the path, if any */
+  public PathTrails.Trail get(final String root) {
+    return trails.get(root);
+  }
+
+  public void hit() {
+    hits.incrementAndGet();
+  }
+
+  public void miss() {
+    misses.incrementAndGet();
+  }
+
+  public void addAll(final List<PathTrails.Trail> recorded) {
+    for (final PathTrails.Trail trail : recorded) {
+      if (trail.isReusable()) trails.put(trail.getRoot(), trail);
+    }
+  }
+
+  /* see Trail.estimateBytes */
+  public long estimateBytes() {
+    long bytes = 0;
+    for (final PathTrails.Trail trail : trails.values()) bytes += trail.estimateBytes();
+    return bytes;
+  }
+
+  public int size() {
+    return trails.size();
+  }
+
+  public Map<String, Object> stats() {
+    final Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("size", size());
+    stats.put("hits", hits.get());
+    stats.put("misses", misses.get());
+    return stats;
+  }
+}
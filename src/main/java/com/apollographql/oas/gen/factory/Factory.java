@@ -123,7 +123,7 @@ public class Factory {
       prop = new PropScalar(parent, propertyName, "JSON", propertySchema);
     }
 
-    if (Type.getAncestors(parent).contains(prop)) {
+    if (Type.hasEqualAncestor(parent, prop)) {
       warn(context, "[factory]", "Recursion detected! Ancestors already contain this type: \n" +
         Type.getRootPathFor(prop));
     }
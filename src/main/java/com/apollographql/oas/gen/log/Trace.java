@@ -2,6 +2,7 @@ package com.apollographql.oas.gen.log;
 
 import com.apollographql.oas.gen.context.Context;
 
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 import static java.util.logging.Level.WARNING;
@@ -10,12 +11,25 @@ import static java.util.logging.Level.FINE;
 public class Trace {
   private static final Logger logger = Logger.getLogger(Trace.class.getName());
 
+  public static boolean isTracing() {
+    return logger.isLoggable(FINE);
+  }
+
   public static void trace(final Context ctx, final String context, final String message) {
+    if (!isTracing()) return;
+
     final int count = ctx != null ? ctx.size() : 0;
     logger.log(FINE, " ".repeat(count) + ("(" + count + ")") + context + " " + message);
 //    System.out.println(" ".repeat(count) + ("(" + count + ")") + context + " " + message);
   }
 
+  /* the message is only built when FINE is enabled, use this whenever the message isn't a constant */
+  public static void trace(final Context ctx, final String context, final Supplier<String> message) {
+    if (!isTracing()) return;
+
+    trace(ctx, context, message.get());
+  }
+
   public static void print(final Context ctx, final String message) {
     System.out.println((ctx != null ? " ".repeat(ctx.size()) : "") + message);
   }
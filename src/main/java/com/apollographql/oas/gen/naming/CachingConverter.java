@@ -0,0 +1,64 @@
+package com.apollographql.oas.gen.naming;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* memoises a converter chain. The same names get converted over and over (every prop, on both generate and
+ * select), so results are kept in a concurrent map, bounded by dropping everything once it's full: names
+ * don't have a useful recency order and refilling is cheap. null isn't cached, it goes straight to the chain. */
+public class CachingConverter implements Converter {
+  private final Converter converter;
+  private final int maxEntries;
+  private final Map<String, String> entries = new ConcurrentHashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  public CachingConverter(final Converter converter, final int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("Cache size should be at least 1, not: " + maxEntries);
+    }
+
+    this.converter = converter;
+    this.maxEntries = maxEntries;
+  }
+
+  @Override
+  public String convert(final String input) {
+    if (input == null) return converter.convert(null);
+
+    final String cached = entries.get(input);
+    if (cached != null) {
+      hits.incrementAndGet();
+      return cached;
+    }
+
+    misses.incrementAndGet();
+    final String result = converter.convert(input);
+
+    if (entries.size() >= maxEntries) {
+      entries.clear();
+      evictions.incrementAndGet();
+    }
+    entries.put(input, result);
+
+    return result;
+  }
+
+  public Map<String, Object> stats() {
+    final long hits = this.hits.get();
+    final long total = hits + misses.get();
+
+    final Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("size", entries.size());
+    stats.put("maxEntries", maxEntries);
+    stats.put("hits", hits);
+    stats.put("misses", misses.get());
+    stats.put("evictions", evictions.get());
+    stats.put("hitRate", total > 0 ? (double) hits / total : 0d);
+    return stats;
+  }
+}
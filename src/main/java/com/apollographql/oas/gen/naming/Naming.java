@@ -3,19 +3,33 @@ package com.apollographql.oas.gen.naming;
 import com.apollographql.oas.converter.utils.NameUtils;
 import com.apollographql.oas.converter.visitor.ComponentResponsesVisitor;
 import com.apollographql.oas.converter.visitor.ComponentSchemasVisitor;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.parameters.Parameter;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
 public class Naming {
-  private static final Converter PARAM_CONVERTER =
-    new ReplaceBracketsConverter(new CapitalisePartsConverted(new FinalFirstLowerCaseConverter()));
+  // entries per cached conversion, a spec rarely has more distinct names than this
+  private static final int CACHE_SIZE = 4096;
+
+  private static final Pattern NEEDS_QUOTES = Pattern.compile(".*[:_\\-\\.].*");
 
-  private static final Converter TYPE_CONVERTER =
+  private static final CachingConverter PARAM_CONVERTER = new CachingConverter(
+    new ReplaceBracketsConverter(new CapitalisePartsConverted(new FinalFirstLowerCaseConverter())), CACHE_SIZE);
+
+  private static final CachingConverter TYPE_CONVERTER = new CachingConverter(
     new RemoveRefConverter(
-    new CapitalisePartsConverted(new FinalFirstUpperCaseConverter()));
+    new CapitalisePartsConverted(new FinalFirstUpperCaseConverter())), CACHE_SIZE);
+
+  private static final CachingConverter REF_CONVERTER = new CachingConverter(
+    new RemoveRefConverter(new FinalConverter()), CACHE_SIZE);
 
-  private static final Converter REF_CONVERTER =
-    new RemoveRefConverter(new FinalConverter());
+  private static final CachingConverter FIELD_CONVERTER = new CachingConverter(Naming::fieldName, CACHE_SIZE);
 
+  private static final CachingConverter SELECT_CONVERTER = new CachingConverter(Naming::selectName, CACHE_SIZE);
 
   public static String genParamName(final String param) {
     return PARAM_CONVERTER.convert(param);
@@ -26,12 +40,31 @@ public class Naming {
   }
 
   public static String sanitiseField(final String name) {
+    return FIELD_CONVERTER.convert(name);
+  }
+
+  public static String sanitiseFieldForSelect(final String name) {
+    return SELECT_CONVERTER.convert(name);
+  }
+
+  /* hit rates of the cached conversions */
+  public static Map<String, Object> stats() {
+    final Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("param", PARAM_CONVERTER.stats());
+    stats.put("type", TYPE_CONVERTER.stats());
+    stats.put("ref", REF_CONVERTER.stats());
+    stats.put("field", FIELD_CONVERTER.stats());
+    stats.put("select", SELECT_CONVERTER.stats());
+    return stats;
+  }
+
+  private static String fieldName(final String name) {
     final String fieldName = name.startsWith("@") ? name.substring(1) : name;
 
     return genParamName(fieldName);
   }
 
-  public static String sanitiseFieldForSelect(final String name) {
+  private static String selectName(final String name) {
     final String fieldName = name.startsWith("@") ? name.substring(1) : name;
 
     final String sanitised = genParamName(fieldName);
@@ -40,7 +73,7 @@ public class Naming {
       return sanitised;
     }
     else {
-      final boolean needsQuotes = fieldName.matches(".*[:_\\-\\.].*") || name.startsWith("@");
+      final boolean needsQuotes = NEEDS_QUOTES.matcher(fieldName).matches() || name.startsWith("@");
       final StringBuilder builder = new StringBuilder();
       builder.append(sanitised)
         .append(": ");
@@ -59,6 +92,103 @@ public class Naming {
     }
   }
 
+  /* same result as NameUtils.genOperationName, in a single scan of the path: '{param}' segments are replaced
+   * by the 'ByParam' suffixes, parts between runs of ':', '-' and '.' are capitalised and so are the parts
+   * between '/', which are dropped. */
+  public static String genOperationName(final String path, final Operation operation) {
+    if (path == null || path.isEmpty()) {
+      return path;
+    }
+
+    final StringBuilder suffix = new StringBuilder();
+    if (operation.getParameters() != null) {
+      for (final Parameter p : operation.getParameters()) {
+        if (p.getRequired() != null && p.getRequired() && !p.getIn().equalsIgnoreCase("header")) {
+          suffix.append("By").append(StringUtils.capitalize(genParamName(p.getName())));
+        }
+      }
+    }
+
+    // replaceAll gives '$' and '\\' a meaning in the replacement, leave those to the original
+    if (suffix.indexOf("$") >= 0 || suffix.indexOf("\\") >= 0) {
+      return NameUtils.genOperationName(path, operation);
+    }
+
+    final OperationNameBuilder builder = new OperationNameBuilder(path.length() + suffix.length());
+    int i = 0;
+    while (i < path.length()) {
+      final char c = path.charAt(i);
+      final int close = c == '{' ? path.indexOf('}', i + 1) : -1;
+
+      if (close >= 0) {
+        for (int j = 0; j < suffix.length(); j++) builder.accept(suffix.charAt(j));
+        i = close + 1;
+      }
+      else {
+        builder.accept(c);
+        i++;
+      }
+    }
+
+    return StringUtils.uncapitalize(builder.toString());
+  }
+
+  /* both capitalisation passes of NameUtils.formatPath at once, fed one char at a time */
+  private static class OperationNameBuilder {
+    private final StringBuilder result;
+    // at the start of a part split by [:-.] (first pass) or by '/' (second pass)
+    private boolean partStart = true;
+    private boolean segmentStart = true;
+
+    OperationNameBuilder(final int capacity) {
+      this.result = new StringBuilder(capacity);
+    }
+
+    void accept(final char c) {
+      if (c == ':' || c == '-' || c == '.') {
+        partStart = true;
+      }
+      else if (partStart) {
+        partStart = false;
+
+        if (isPlainAscii(c)) {
+          segment(Character.toUpperCase(c));
+        }
+        else {
+          final String upper = String.valueOf(c).toUpperCase();
+          for (int i = 0; i < upper.length(); i++) segment(upper.charAt(i));
+        }
+      }
+      else {
+        segment(c);
+      }
+    }
+
+    private void segment(final char c) {
+      if (c == '/') {
+        segmentStart = true;
+      }
+      else if (segmentStart) {
+        segmentStart = false;
+
+        if (isPlainAscii(c)) result.append(Character.toUpperCase(c));
+        else result.append(String.valueOf(c).toUpperCase());
+      }
+      else {
+        result.append(c);
+      }
+    }
+
+    /* ascii chars whose String.toUpperCase doesn't depend on the default locale ('i' does, in turkish) */
+    private static boolean isPlainAscii(final char c) {
+      return c < 128 && c != 'i';
+    }
+
+    public String toString() {
+      return result.toString();
+    }
+  }
+
   public static String genArrayItems(final String name) {
     return StringUtils.capitalize(genParamName(name)) + "Item";
   }
@@ -137,23 +267,29 @@ class CapitalisePartsConverted extends AbstractConverter {
 
   @Override
   public String convert(final String input) {
-    return processNext(capitaliseParts(input, "[\\-_\\.]"));
+    return processNext(capitaliseParts(input));
   }
 
-  String capitaliseParts(final String cleanedPath, final String splitChar) {
-    String[] parts = cleanedPath.split(splitChar);
-    StringBuilder formattedPath = new StringBuilder();
+  /* same as splitting on [-_.] and capitalising each non-empty part, without the regex */
+  String capitaliseParts(final String cleanedPath) {
+    final StringBuilder formattedPath = new StringBuilder(cleanedPath.length());
 
-    for (String part : parts) {
-      if (!part.isEmpty()) {
+    boolean start = true;
+    for (int i = 0; i < cleanedPath.length(); i++) {
+      final char c = cleanedPath.charAt(i);
+      if (c == '-' || c == '_' || c == '.') {
+        start = true;
+      }
+      else if (start) {
         // Capitalize the first letter of each part
-        formattedPath //.append("/")
-          .append(part.substring(0, 1).toUpperCase())
-          .append(part.substring(1));
+        formattedPath.append(String.valueOf(c).toUpperCase());
+        start = false;
+      }
+      else {
+        formattedPath.append(c);
       }
     }
 
-    // Step 3: Ensure the final string starts with a single slash.
     return formattedPath.toString();
   }
 }
@@ -165,11 +301,13 @@ class ReplaceBracketsConverter extends AbstractConverter {
 
   @Override
   public String convert(final String input) {
-    return processNext(input.replaceAll("[\\[\\]]", "-"));
+    return processNext(input.replace('[', '-').replace(']', '-'));
   }
 }
 
 class BracketToCamelCaseConverter extends AbstractConverter {
+  private static final Pattern TOKEN = Pattern.compile("[^\\[\\]]+");
+
   public BracketToCamelCaseConverter(Converter next) {
     super(next);
   }
@@ -179,7 +317,7 @@ class BracketToCamelCaseConverter extends AbstractConverter {
     final StringBuilder builder = new StringBuilder();
 
     boolean isFirst = true;
-    var matcher = java.util.regex.Pattern.compile("[^\\[\\]]+").matcher(input);
+    var matcher = TOKEN.matcher(input);
     while (matcher.find()) {
       String token = matcher.group();
       if (isFirst) {
@@ -31,6 +31,11 @@ public class Array extends Type {
     return "array:" + (getItemsType() != null ? getItemsType().getName() : "unknown-yet");
   }
 
+  @Override
+  protected String idSource() {
+    return getItemsType() != null ? getItemsType().getName() : "unknown-yet";
+  }
+
   @Override
   public void visit(final Context context) {
     if (isVisited()) return;
@@ -40,7 +45,7 @@ public class Array extends Type {
 
     if (itemsType == null) {
       itemsType = Factory.fromSchema(this, getItems());
-      trace(context, "   [array:visit]", "type: " + itemsType);
+      trace(context, "   [array:visit]", () -> "type: " + itemsType);
       itemsType.visit(context);
       setVisited(true);
     }
@@ -52,21 +57,21 @@ public class Array extends Type {
   @Override
   public void generate(Context context, Writer writer) throws IOException {
     context.enter(this);
-    trace(context, "-> [array::generate]", String.format("-> in: %s", this.getSimpleName()));
+    trace(context, "-> [array::generate]", () -> String.format("-> in: %s", this.getSimpleName()));
 
     writer.append("[");
     getItemsType().generate(context, writer);
     writer.append("]");
 
-    trace(context, "<- [array::generate]", String.format("-> out: %s", this.getSimpleName()));
+    trace(context, "<- [array::generate]", () -> String.format("-> out: %s", this.getSimpleName()));
     context.leave(this);
   }
 
   @Override
   public void select(final Context context, final Writer writer) throws IOException {
-    trace(context, "-> [array::select]", String.format("-> in: %s", this.getSimpleName()));
+    trace(context, "-> [array::select]", () -> String.format("-> in: %s", this.getSimpleName()));
     getItemsType().select(context, writer);
-    trace(context, "<- [array::select]", String.format("-> out: %s", this.getSimpleName()));
+    trace(context, "<- [array::select]", () -> String.format("-> out: %s", this.getSimpleName()));
   }
 
   @Override
@@ -23,37 +23,37 @@ public class CircularRef extends Type {
 
   @Override
   public void visit(final Context context) {
-    trace(context, "-> [circular-ref:visit]", String.format("-> in: %s", getSimpleName()));
+    trace(context, "-> [circular-ref:visit]", () -> String.format("-> in: %s", getSimpleName()));
     // do nothing, this type is always visited
-    trace(context, "<- [circular-ref:visit]", String.format("-> out: %s", getSimpleName()));
+    trace(context, "<- [circular-ref:visit]", () -> String.format("-> out: %s", getSimpleName()));
   }
 
   @Override
-  public Set<Type> dependencies(final Context context) {
-    trace(context, "-> [circular-ref:dependencies]", String.format("-> in: %s", getSimpleName()));
+  protected Set<Type> computeDependencies(final Context context) {
+    trace(context, "-> [circular-ref:dependencies]", () -> String.format("-> in: %s", getSimpleName()));
     final Set<Type> result = Collections.emptySet();
-    trace(context, "<- [circular-ref:dependencies]", String.format("-> out: %s", getSimpleName()));
+    trace(context, "<- [circular-ref:dependencies]", () -> String.format("-> out: %s", getSimpleName()));
     return result;
   }
 
   @Override
   public void generate(final Context context, final Writer writer) throws IOException {
-    trace(context, "-> [circular-ref:generate]", String.format("-> in: %s", getSimpleName()));
+    trace(context, "-> [circular-ref:generate]", () -> String.format("-> in: %s", getSimpleName()));
     // do nothing, we can't really generate a circular reference
-    trace(context, "<- [circular-ref:generate]", String.format("-> out: %s", getSimpleName()));
+    trace(context, "<- [circular-ref:generate]", () -> String.format("-> out: %s", getSimpleName()));
   }
 
   @Override
   public void select(final Context context, final Writer writer) throws IOException {
-    trace(context, "-> [circular-ref:select]", String.format("-> in: %s", getSimpleName()));
+    trace(context, "-> [circular-ref:select]", () -> String.format("-> in: %s", getSimpleName()));
 
     // do nothing, we can't really select a circular reference
     writer
-      .append(" ".repeat(context.getIndent() + context.getStack().size()))
+      .append(context.indentation())
       .append("# Circular reference to '")
       .append(getSimpleName())
       .append("' detected! Please re-visit the schema and remove the reference.\n");
 
-    trace(context, "<- [circular-ref:select]", String.format("-> out: %s", getSimpleName()));
+    trace(context, "<- [circular-ref:select]", () -> String.format("-> out: %s", getSimpleName()));
   }
 }
@@ -33,20 +33,20 @@ public class Composed extends Type {
   }
 
   @Override
-  public Set<Type> dependencies(final Context context) {
+  protected Set<Type> computeDependencies(final Context context) {
     if (!isVisited()) {
       this.visit(context);
     }
 
     context.enter(this);
-    trace(context, "-> [comp::dependencies]", String.format("-> in: %s", this.getName()));
+    trace(context, "-> [comp::dependencies]", () -> String.format("-> in: %s", this.getName()));
 
     final Set<Type> set = new HashSet<>();
     if (getSchema().getAllOf() != null) {
       for (Type p : getProps().values()) {
-        trace(context, "  [comp:all-of::dependencies]", "checking prop " + p.getName());
+        trace(context, "  [comp:all-of::dependencies]", () -> "checking prop " + p.getName());
         final Set<Type> dependencies = p.dependencies(context);
-        trace(context, "  [comp:all-of::dependencies]", dependencies.toString());
+        trace(context, "  [comp:all-of::dependencies]", () -> dependencies.toString());
         set.addAll(dependencies);
       }
     }
@@ -54,14 +54,14 @@ public class Composed extends Type {
     if (getSchema().getOneOf() != null) {
       // by default dependencies will be children, except in objects and composed types
       for (Type t : getChildren()) {
-        trace(context, "  [comp:one-of::dependencies]", "checking child " + t.getName());
+        trace(context, "  [comp:one-of::dependencies]", () -> "checking child " + t.getName());
         final Set<Type> dependencies = t.dependencies(context);
-        trace(context, "  [comp:one-of::dependencies]", dependencies.toString());
+        trace(context, "  [comp:one-of::dependencies]", () -> dependencies.toString());
         set.addAll(dependencies);
       }
     }
 
-    trace(context, "<- [comp::dependencies]", String.format("-> out: %s", this.getName()));
+    trace(context, "<- [comp::dependencies]", () -> String.format("-> out: %s", this.getName()));
     context.leave(this);
     return set;
   }
@@ -69,7 +69,7 @@ public class Composed extends Type {
   @Override
   public void generate(final Context context, final Writer writer) throws IOException {
     context.enter(this);
-    trace(context, "-> [comp::generate]", String.format("-> in: %s", this.getName()));
+    trace(context, "-> [comp::generate]", () -> String.format("-> in: %s", this.getName()));
 
     if (getSchema().getOneOf() != null) {
       getChildren().get(0).generate(context, writer);
@@ -77,11 +77,11 @@ public class Composed extends Type {
     else if (getSchema().getAllOf() != null) {
       if (!getProps().isEmpty()) {
         writer.append("type ")
-          .append(Naming.getRefName(getName()))
+          .append(context.getRefName(getName()))
           .append(" {\n");
 
         for (Prop prop : this.getProps().values()) {
-          trace(context, "   [comp::generate]", String.format("-> property: %s (parent: %s)", prop.getName(), prop.getParent().getSimpleName()));
+          trace(context, "   [comp::generate]", () -> String.format("-> property: %s (parent: %s)", prop.getName(), prop.getParent().getSimpleName()));
           prop.generate(context, writer);
         }
 
@@ -89,13 +89,13 @@ public class Composed extends Type {
       }
     }
 
-    trace(context, "<- [comp::generate]", String.format("-> out: %s", this.getName()));
+    trace(context, "<- [comp::generate]", () -> String.format("-> out: %s", this.getName()));
     context.leave(this);
   }
 
   @Override
   public void select(final Context context, final Writer writer) throws IOException {
-    trace(context, "-> [comp::select]", String.format("-> in: %s", this.getSimpleName()));
+    trace(context, "-> [comp::select]", () -> String.format("-> in: %s", this.getSimpleName()));
 
     final Schema schema = getSchema();
 
@@ -109,7 +109,7 @@ public class Composed extends Type {
       getChildren().get(0).select(context, writer);
     }
 
-    trace(context, "<- [comp::select]", String.format("-> out: %s", this.getSimpleName()));
+    trace(context, "<- [comp::select]", () -> String.format("-> out: %s", this.getSimpleName()));
   }
 
   @Override
@@ -117,7 +117,7 @@ public class Composed extends Type {
     if (isVisited()) return;
 
     context.enter(this);
-    trace(context, "-> [composed:visit]", "in: " + (getName() == null ? "[object]" : getName()));
+    trace(context, "-> [composed:visit]", () -> "in: " + (getName() == null ? "[object]" : getName()));
 
     if (!context.inContextOf(Composed.class, this) && !context.inContextOf(Param.class, this))
       print(null, "In composed schema: " + getName());
@@ -137,7 +137,7 @@ public class Composed extends Type {
 
     setVisited(true);
 
-    trace(context, "<- [composed:visit]", "out: " + getName());
+    trace(context, "<- [composed:visit]", () -> "out: " + getName());
     context.leave(this);
   }
 
@@ -147,14 +147,14 @@ public class Composed extends Type {
     final List<Schema> allOfs = schema.getAllOf();
     final List<String> refs = allOfs.stream().map(Schema::get$ref).toList();
 
-    trace(context, "-> [composed::all-of]", "in: " + String.format("'%s' of: %d - refs: %s", name, allOfs.size(), refs));
+    trace(context, "-> [composed::all-of]", () -> "in: " + String.format("'%s' of: %d - refs: %s", name, allOfs.size(), refs));
 
     final Map<String, Prop> collected = new LinkedHashMap<>();
     for (int i = 0; i < allOfs.size(); i++) {
       final Schema allOfItemSchema = allOfs.get(i);
 
       final Type type = Factory.fromSchema(this, allOfItemSchema);
-      trace(context, "   [composed::all-of]", "allOf type: " + type);
+      trace(context, "   [composed::all-of]", () -> "allOf type: " + type);
       assert type != null;
 
       // we are visiting all the tree -- then we'll let them choose which properties they want to add
@@ -175,10 +175,10 @@ public class Composed extends Type {
     }
 
     // we'll store it first, it might avoid recursion
-    trace(context, "-> [composed]", "storing: " + getName() + " with: " + this);
+    trace(context, "-> [composed]", () -> "storing: " + getName() + " with: " + this);
     context.store(getName(), this);
 
-    trace(context, "<- [composed::all-of]", "out: " + String.format("'%s' of: %d - refs: %s", name, allOfs.size(), refs));
+    trace(context, "<- [composed::all-of]", () -> "out: " + String.format("'%s' of: %d - refs: %s", name, allOfs.size(), refs));
   }
 
   private void promptPropertySelection(final Context context, final Map<String, Prop> properties) {
@@ -196,7 +196,7 @@ public class Composed extends Type {
       for (final Map.Entry<String, Prop> entry : properties.entrySet()) {
         final Prop prop = entry.getValue();
         if (addAll == 'y' || context.getPrompt().yesNo(prop.path(), "Add field '" + prop.forPrompt(context) + "'?")) {
-          trace(context, "   [composed::props]", "prop: " + prop);
+          trace(context, "   [composed::props]", () -> "prop: " + prop);
 
           // add property to our dependencies
           getProps().put(prop.getName(), prop);
@@ -211,17 +211,17 @@ public class Composed extends Type {
 
   private void visitOneOfNode(final Context context, final ComposedSchema schema) {
     final List<Schema> oneOfs = schema.getOneOf();
-    trace(context, "-> [composed::one-of]", "in: " + String.format("OneOf %s with size: %d", name, oneOfs.size()));
+    trace(context, "-> [composed::one-of]", () -> "in: " + String.format("OneOf %s with size: %d", name, oneOfs.size()));
 
     final Type result = Factory.fromUnion(context, this, oneOfs);
     assert result != null;
     result.visit(context);
 
-    trace(context, "-> [composed::one-of]", "storing: " + getName() + " with: " + this);
+    trace(context, "-> [composed::one-of]", () -> "storing: " + getName() + " with: " + this);
     if (getName() != null)
       context.store(getName(), this);
 
-    trace(context, "<- [composed::one-of]", "out: " + String.format("OneOf %s with size: %d", name, oneOfs.size()));
+    trace(context, "<- [composed::one-of]", () -> "out: " + String.format("OneOf %s with size: %d", name, oneOfs.size()));
   }
 
 }
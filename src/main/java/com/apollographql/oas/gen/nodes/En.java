@@ -45,7 +45,7 @@ public class En extends Type {
     if (isVisited()) return;
 
     context.enter(this);
-    trace(context, "-> [enum:visit]", "in: " + getItems());
+    trace(context, "-> [enum:visit]", () -> "in: " + getItems());
 
     // we need to store a type when it's not in the context of a Param, pending
     // to check if a Union is a problem too
@@ -55,14 +55,14 @@ public class En extends Type {
 
     setVisited(true);
 
-    trace(context, "<- [enum:visit]", "out: " + getItems());
+    trace(context, "<- [enum:visit]", () -> "out: " + getItems());
     context.leave(this);
   }
 
   @Override
   public void generate(final Context context, final Writer writer) throws IOException {
     context.enter(this);
-    trace(context, "-> [enum::generate]", String.format("-> in: %s", this.getSimpleName()));
+    trace(context, "-> [enum::generate]", () -> String.format("-> in: %s", this.getSimpleName()));
 
     if (!context.inContextOf(Param.class, this)) {
       String builder = "enum " +
@@ -80,13 +80,13 @@ public class En extends Type {
     }
     // else do nothing
 
-    trace(context, "<- [enum::generate]", String.format("-> out: %s", this.getSimpleName()));
+    trace(context, "<- [enum::generate]", () -> String.format("-> out: %s", this.getSimpleName()));
     context.leave(this);
   }
 
   @Override
   public void select(final Context context, final Writer writer) throws IOException {
-    trace(context, "-> [enum::select]", String.format("-> in: %s", this.getSimpleName()));
+    trace(context, "-> [enum::select]", () -> String.format("-> in: %s", this.getSimpleName()));
 
     final Set<Type> dependencies = dependencies(context);
 
@@ -94,11 +94,11 @@ public class En extends Type {
       dependency.select(context, writer);
     }
 
-    trace(context, "<- [enum::select]", String.format("-> out: %s", this.getSimpleName()));
+    trace(context, "<- [enum::select]", () -> String.format("-> out: %s", this.getSimpleName()));
   }
 
   @Override
-  public Set<Type> dependencies(final Context context) {
+  protected Set<Type> computeDependencies(final Context context) {
     // do nothing
     return Collections.emptySet();
   }
@@ -1,9 +1,10 @@
 package com.apollographql.oas.gen.nodes;
 
-import com.apollographql.oas.converter.utils.NameUtils;
 import com.apollographql.oas.gen.context.Context;
 import com.apollographql.oas.gen.factory.Factory;
+import com.apollographql.oas.gen.naming.Naming;
 import com.apollographql.oas.gen.nodes.params.Param;
+import com.apollographql.oas.gen.output.HttpTemplate;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.media.Content;
 import io.swagger.v3.oas.models.media.MediaType;
@@ -27,6 +28,9 @@ public class GetOp extends Type {
 
   private Type resultType;
 
+  private volatile OpName opName;
+  private volatile Http http;
+
   public GetOp(final String name, final Operation get) {
     super(null, name);
     this.get = get;
@@ -68,12 +72,12 @@ public class GetOp extends Type {
   @Override
   public void visit(final Context context) {
     if (isVisited()) {
-      trace(context, "-> [get:visit]", getName() + " already visited.");
+      trace(context, "-> [get:visit]", () -> getName() + " already visited.");
       return;
     }
 
     context.enter(this);
-    trace(context, "-> [get:visit]", "in " + getName());
+    trace(context, "-> [get:visit]", () -> "in " + getName());
 
     // 1. visit parameters
     visitParameters(context);
@@ -82,7 +86,7 @@ public class GetOp extends Type {
     visitResponses(context);
 
     setVisited(true);
-    trace(context, "<- [get:visit]", "out " + getName());
+    trace(context, "<- [get:visit]", () -> "out " + getName());
     context.leave(this);
   }
 
@@ -94,7 +98,7 @@ public class GetOp extends Type {
   }
 
   private void visitParameters(final Context context) {
-    trace(context, "-> [get::parameters]", "in: " + getName());
+    trace(context, "-> [get::parameters]", () -> "in: " + getName());
 
     if (this.get.getParameters() != null && !this.get.getParameters().isEmpty()) {
       this.parameters = this.get.getParameters().stream()
@@ -105,11 +109,11 @@ public class GetOp extends Type {
       this.parameters = Collections.emptyList();
     }
 
-    trace(context, "<- [get::parameters]", "out: " + getName());
+    trace(context, "<- [get::parameters]", () -> "out: " + getName());
   }
 
   private void visitResponses(final Context context) {
-    trace(context, "-> [get::responses]", "in " + getName());
+    trace(context, "-> [get::responses]", () -> "in " + getName());
 
     final List<Map.Entry<String, ApiResponse>> filtered = this.get.getResponses().entrySet().stream()
       .filter(e -> e.getKey().equals("200")) // || e.getKey().equals("default"))
@@ -125,7 +129,7 @@ public class GetOp extends Type {
       visitResponse(context, e.getKey(), e.getValue());
     }
 
-    trace(context, "<- [get::responses]", "out " + getName());
+    trace(context, "<- [get::responses]", () -> "out " + getName());
   }
 
   private void visitResponse(final Context context, String code, final ApiResponse response) {
@@ -147,7 +151,7 @@ public class GetOp extends Type {
   }
 
   private void visitResponseContent(final Context context, final String code, final ApiResponse response) {
-    trace(context, "-> [get::responses::content]", "in " + getName());
+    trace(context, "-> [get::responses::content]", () -> "in " + getName());
 
     final Content content = response.getContent();
     final MediaType mediaType = findJsonContent(content).get().getValue();
@@ -160,7 +164,7 @@ public class GetOp extends Type {
     if (!children.contains(this.resultType))
       children.add(getResultType());
 
-    trace(context, "<- [get::responses::content]", "out " + getName());
+    trace(context, "<- [get::responses::content]", () -> "out " + getName());
   }
 
   private static Optional<Map.Entry<String, MediaType>> findJsonContent(final Content content) {
@@ -171,18 +175,18 @@ public class GetOp extends Type {
   }
 
   private void visitResponseRef(final Context context, final ApiResponse response) {
-    trace(context, "-> [get::responses::ref]", "in: " + getName() + ", ref: " + response.get$ref());
+    trace(context, "-> [get::responses::ref]", () -> "in: " + getName() + ", ref: " + response.get$ref());
 
     final ApiResponse lookup = context.lookupResponse(response.get$ref());
     visitResponse(context, response.get$ref(), lookup);
 
-    trace(context, "<- [get::responses::ref]", "out: " + getName());
+    trace(context, "<- [get::responses::ref]", () -> "out: " + getName());
   }
 
   @Override
   public void generate(Context context, Writer writer) throws IOException {
     context.enter(this);
-    trace(context, "-> [get::generate]", String.format("-> in: %s", this.getName()));
+    trace(context, "-> [get::generate]", () -> String.format("-> in: %s", this.getName()));
 
     if (getSummary() != null || getOriginalPath() != null) {
       writer.append("  \"\"\"\n").append("  ");
@@ -211,24 +215,54 @@ public class GetOp extends Type {
 
     writer.append("\n");
 
-    trace(context, "<- [get::generate]", String.format("-> out: %s", this.getName()));
+    trace(context, "<- [get::generate]", () -> String.format("-> out: %s", this.getName()));
     context.leave(this);
   }
 
+  /* cached for as long as the path stays the same */
   public String getGqlOpName() {
-    return NameUtils.genOperationName(getOriginalPath(), getGet());
+    final String path = getOriginalPath();
+
+    final OpName cached = this.opName;
+    if (cached != null && cached.path() == path) {
+      return cached.name();
+    }
+
+    final String name = Naming.genOperationName(path, getGet());
+    this.opName = new OpName(path, name);
+    return name;
+  }
+
+  /* the @connect http block, compiled once the parameters are known and again only if the path changes */
+  public HttpTemplate getHttpTemplate() {
+    final String path = getOriginalPath();
+
+    final Http cached = this.http;
+    if (cached != null && cached.path() == path && cached.parameters() == getParameters()) {
+      return cached.template();
+    }
+
+    final HttpTemplate template = HttpTemplate.compile(path, getGet(), !getParameters().isEmpty());
+    this.http = new Http(path, getParameters(), template);
+    return template;
+  }
+
+  private record OpName(String path, String name) {
+  }
+
+  private record Http(String path, List<Param> parameters, HttpTemplate template) {
   }
 
   @Override
-  public Set<Type> dependencies(final Context context) {
+  protected Set<Type> computeDependencies(final Context context) {
     if (!isVisited()) throw new IllegalStateException("Type should have been visited before asking for dependencies!");
 
     context.enter(this);
-    trace(context, "-> [get::dependencies]", String.format("-> in: %s", this.getName()));
+    trace(context, "-> [get::dependencies]", () -> String.format("-> in: %s", this.getName()));
 
     final Set<Type> set = Set.of(getResultType());
 
-    trace(context, "<- [get::dependencies]", String.format("-> out: %s", this.getName()));
+    trace(context, "<- [get::dependencies]", () -> String.format("-> out: %s", this.getName()));
     context.leave(this);
     return set;
   }
@@ -252,12 +286,12 @@ public class GetOp extends Type {
   }
 
   private Param visitParameter(final Context context, final Type parent, final Parameter p) {
-    trace(context, "->[visitParameter]", "begin: " + p.getName());
+    trace(context, "->[visitParameter]", () -> "begin: " + p.getName());
 
     final Param param = Factory.fromParam(context, parent, p);
     param.visit(context);
 
-    trace(context, "<-[visitParameter]", "end: " + p.getName());
+    trace(context, "<-[visitParameter]", () -> "end: " + p.getName());
     return param;
   }
 }
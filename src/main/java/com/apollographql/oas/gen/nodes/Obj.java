@@ -2,6 +2,7 @@ package com.apollographql.oas.gen.nodes;
 
 import com.apollographql.oas.converter.utils.NameUtils;
 import com.apollographql.oas.gen.context.Context;
+import com.apollographql.oas.gen.context.PropertyListing;
 import com.apollographql.oas.gen.factory.Factory;
 import com.apollographql.oas.gen.naming.Naming;
 import com.apollographql.oas.gen.nodes.props.Prop;
@@ -85,7 +86,7 @@ public class Obj extends Type {
     if (isVisited()) return;
 
     context.enter(this);
-    trace(context, "-> [obj:visit]", "in " + getName());
+    trace(context, "-> [obj:visit]", () -> "in " + getName());
 
     if (!context.inContextOf(Composed.class, this))
       print(null, "In object: " + (getName() != null ? getName() : getOwner()));
@@ -97,18 +98,18 @@ public class Obj extends Type {
     if (getName() != null)
       context.store(getName(), this);
 
-    trace(context, "<- [obj:visit]", "out " + getName());
+    trace(context, "<- [obj:visit]", () -> "out " + getName());
     context.leave(this);
   }
 
   @Override
-  public Set<Type> dependencies(final Context context) {
+  protected Set<Type> computeDependencies(final Context context) {
     if (!isVisited()) {
       this.visit(context);
     }
 
     context.enter(this);
-    trace(context, "-> [obj:dependencies]", "in " + getName());
+    trace(context, "-> [obj:dependencies]", () -> "in " + getName());
 
     final Set<Type> set = new HashSet<>();
     for (Type p : getProps().values().stream()
@@ -117,7 +118,7 @@ public class Obj extends Type {
       set.addAll(dependencies);
     }
 
-    trace(context, "<- [obj:dependencies]", "out " + getName());
+    trace(context, "<- [obj:dependencies]", () -> "out " + getName());
     context.leave(this);
     return set;
   }
@@ -135,36 +136,36 @@ public class Obj extends Type {
     }
 
     context.enter(this);
-    trace(context, "-> [obj::generate]", String.format("-> in: %s", this.getName()));
+    trace(context, "-> [obj::generate]", () -> String.format("-> in: %s", this.getName()));
 
 //    final String sanitised = StringUtils.capitalize(NameUtils.genParamName(NameUtils.getRefName(getName())));
     final String sanitised = Naming.genTypeName(getName());
-    final String refName = Naming.getRefName(getName());
+    final String refName = context.getRefName(getName());
 
     writer.append("type ")
       .append(sanitised.equals(refName) ? refName : sanitised)
       .append(" {\n");
 
     for (Prop prop : this.getProps().values()) {
-      trace(context, "-> [obj::generate]", String.format("-> property: %s (parent: %s)", prop.getName(), prop.getParent().getSimpleName()));
+      trace(context, "-> [obj::generate]", () -> String.format("-> property: %s (parent: %s)", prop.getName(), prop.getParent().getSimpleName()));
       prop.generate(context, writer);
     }
 
     writer.append("}\n\n");
 
-    trace(context, "<- [obj::generate]", String.format("-> out: %s", this.getName()));
+    trace(context, "<- [obj::generate]", () -> String.format("-> out: %s", this.getName()));
     context.leave(this);
   }
 
   @Override
   public void select(final Context context, final Writer writer) throws IOException {
-    trace(context, "-> [ref::select]", String.format("-> in: %s", this.getSimpleName()));
+    trace(context, "-> [ref::select]", () -> String.format("-> in: %s", this.getSimpleName()));
 
     for (Prop prop : this.getProps().values()) {
       prop.select(context, writer);
     }
 
-    trace(context, "<- [ref::select]", String.format("-> out: %s", this.getSimpleName()));
+    trace(context, "<- [ref::select]", () -> String.format("-> out: %s", this.getSimpleName()));
   }
 
   @Override
@@ -181,56 +182,46 @@ public class Obj extends Type {
 
     //noinspection unchecked
     final Map<String, Schema> properties = schema.getProperties();
-    trace(context, "-> [obj::props]", "in props " + (properties.isEmpty() ? "0" : properties.size()));
+    trace(context, "-> [obj::props]", () -> "in props " + (properties.isEmpty() ? "0" : properties.size()));
 
     if (properties.isEmpty()) {
-      trace(context, "<- [obj::props]", "no props " + getProps().size());
+      trace(context, "<- [obj::props]", () -> "no props " + getProps().size());
       return;
     }
 
-    final Set<Map.Entry<String, Schema>> sorted = properties.entrySet()
-      .stream()
-      .sorted((o1, o2) -> o1.getKey().compareToIgnoreCase(o2.getKey()))
-      .collect(Collectors.toCollection(LinkedHashSet::new));
-
-    final Map<String, Prop> collected = sorted.stream()
-      .map(e -> Factory.fromProperty(context, this, e.getKey(), e.getValue()))
-      .collect(Collectors.toMap(Prop::getName, prop -> prop));
-
-    final String propertiesNames = collected.values().stream()
-      .map(p -> p.forPrompt(context))
-      .collect(Collectors.joining(",\n - "));
+    final List<Map.Entry<String, Schema>> sorted = context.getRegistry()
+      .getListing(schema, () -> new PropertyListing(sortProperties(properties)))
+      .properties();
 
     final boolean inCompose = context.inContextOf(Composed.class, this);
 
     final int inComposeIdx = findAncestorOf(this, Composed.class);
     final int inArrayIdx = findAncestorOf(this, PropArray.class);
+    final boolean askAll = !inCompose || (inArrayIdx > inComposeIdx);
 
-    if (!inCompose || (inArrayIdx > inComposeIdx)) {
+    if (askAll) {
       System.out.println("Obj.visitProperties HERE");
     }
 
-    trace(context, "   [obj::props]", getSimpleName() + " is within compose context? " + inCompose);
+    trace(context, "   [obj::props]", () -> getSimpleName() + " is within compose context? " + inCompose);
+
+    // the prompt lists the props, so when it's asked they're built first and then added (or not) as they are
+    final List<Prop> candidates = askAll ? createProps(context, sorted) : null;
 
-    final char addAll = (!inCompose || (inArrayIdx > inComposeIdx)) ? context.getPrompt()
-      .yesNoSelect(path(), " -> Add all properties from [object] " + getOwner() + "?: \n - " + propertiesNames + "\n") : 'y';
+    final char addAll = askAll ? context.getPrompt()
+      .yesNoSelect(path(), " -> Add all properties from [object] " + getOwner() + "?: \n - " + promptNames(context, candidates) + "\n") : 'y';
 
     /* we should only prompt for properties if:
      * 1. we are NOT a comp://all-of
      * 2. the comp://all-of contains our name (i.e: #/component/schemas/Extensible
      */
     if ((addAll == 'y' || addAll == 's')) {
-      for (final Map.Entry<String, Schema> entry : sorted) {
-        final String propertyName = entry.getKey();
-        final Schema propertySchema = entry.getValue();
-
-        final Prop prop = Factory.fromProperty(context, this, propertyName, propertySchema);
-
+      for (final Prop prop : candidates != null ? candidates : createProps(context, sorted)) {
         if (addAll == 'y' || context.getPrompt().yesNo(prop.path(), "Add field '" + prop.forPrompt(context) + "'?")) {
-          trace(context, "   [obj::props]", "prop: " + prop);
+          trace(context, "   [obj::props]", () -> "prop: " + prop);
 
           // add property to our dependencies
-          getProps().put(propertyName, prop);
+          getProps().put(prop.getName(), prop);
 
           if (!this.getChildren().contains(prop)) {
             this.add(prop);
@@ -244,7 +235,31 @@ public class Obj extends Type {
     // instead of adding them as a dependency
     addDependencies(context);
 
-    trace(context, "<- [obj::props]", "out props " + getProps().size());
+    trace(context, "<- [obj::props]", () -> "out props " + getProps().size());
+  }
+
+  private static List<Map.Entry<String, Schema>> sortProperties(final Map<String, Schema> properties) {
+    return properties.entrySet()
+      .stream()
+      .sorted((o1, o2) -> o1.getKey().compareToIgnoreCase(o2.getKey()))
+      .toList();
+  }
+
+  private List<Prop> createProps(final Context context, final List<Map.Entry<String, Schema>> sorted) {
+    final List<Prop> props = new ArrayList<>(sorted.size());
+    for (final Map.Entry<String, Schema> entry : sorted) {
+      props.add(Factory.fromProperty(context, this, entry.getKey(), entry.getValue()));
+    }
+    return props;
+  }
+
+  private static String promptNames(final Context context, final List<Prop> props) {
+    final Map<String, Prop> collected = props.stream()
+      .collect(Collectors.toMap(Prop::getName, prop -> prop));
+
+    return collected.values().stream()
+      .map(p -> p.forPrompt(context))
+      .collect(Collectors.joining(",\n - "));
   }
 
   private void addDependencies(final Context context) {
@@ -253,13 +268,13 @@ public class Obj extends Type {
     if (!inCompose) {
       final List<Prop> dependencies = getProps().values().stream()
         .filter(p -> {
-          trace(context, "-> [obj]", "visitProperties - NOT inCompose, in " + id());
+          trace(context, "-> [obj]", () -> "visitProperties - NOT inCompose, in " + id());
           return p instanceof PropRef || p instanceof PropArray || p instanceof PropObj;
         })
         .toList();
 
       for (final Prop dependency : dependencies) {
-        trace(context, "-> [obj]", "prop dependency: " + dependency.getName());
+        trace(context, "-> [obj]", () -> "prop dependency: " + dependency.getName());
         dependency.visit(context);
       }
     }
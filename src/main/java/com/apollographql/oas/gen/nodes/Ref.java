@@ -39,7 +39,7 @@ public class Ref extends Type {
     if (isVisited()) return;
 
     context.enter(this);
-    trace(context, "-> [ref:visit]", "in: " + getRef());
+    trace(context, "-> [ref:visit]", () -> "in: " + getRef());
 
     final Schema schema = context.lookupRef(getRef());
     assert schema != null;
@@ -50,7 +50,7 @@ public class Ref extends Type {
 
     setVisited(true);
 
-    trace(context, "<- [ref:visit]", "out: " + getRef());
+    trace(context, "<- [ref:visit]", () -> "out: " + getRef());
     context.leave(this);
   }
 
@@ -61,7 +61,7 @@ public class Ref extends Type {
   @Override
   public void generate(final Context context, final Writer writer) throws IOException {
     context.enter(this);
-    trace(context, "-> [ref::generate]", String.format("-> in: %s", this.getSimpleName()));
+    trace(context, "-> [ref::generate]", () -> String.format("-> in: %s", this.getSimpleName()));
 
     if (context.inContextOf(Response.class, this) && getRefType() instanceof Array) {
       writer.append("[").append(getFirstChild().getName()).append("]");
@@ -70,12 +70,12 @@ public class Ref extends Type {
       // apparently we can have terrible names like 'catalog-data-product-search-results-interface', so let's
       // rewrite those to something more sensible
       final String sanitised = Naming.genTypeName(getName());
-      final String refName = Naming.getRefName(getName());
+      final String refName = context.getRefName(getName());
 
       writer.write(sanitised.equals(refName) ? refName : sanitised);
     }
 
-    trace(context, "<- [ref::generate]", String.format("-> out: %s", this.getSimpleName()));
+    trace(context, "<- [ref::generate]", () -> String.format("-> out: %s", this.getSimpleName()));
     context.leave(this);
   }
 
@@ -85,9 +85,9 @@ public class Ref extends Type {
 
   @Override
   public void select(final Context context, final Writer writer) throws IOException {
-    trace(context, "-> [ref::select]", String.format("-> in: %s", this.getSimpleName()));
+    trace(context, "-> [ref::select]", () -> String.format("-> in: %s", this.getSimpleName()));
     getRefType().select(context, writer);
-    trace(context, "<- [ref::select]", String.format("-> out: %s", this.getSimpleName()));
+    trace(context, "<- [ref::select]", () -> String.format("-> out: %s", this.getSimpleName()));
   }
 
   @Override
@@ -42,30 +42,30 @@ public class Response extends Type {
     if (isVisited()) return;
 
     context.enter(this);
-    trace(context, "-> [response:visit]", "in " + getName());
+    trace(context, "-> [response:visit]", () -> "in " + getName());
 
     getResponseType().visit(context);
     setVisited(true);
 
-    trace(context, "<- [response:visit]", "out " + getName());
+    trace(context, "<- [response:visit]", () -> "out " + getName());
     context.leave(this);
   }
 
   @Override
   public void generate(final Context context, final Writer writer) throws IOException {
     context.enter(this);
-    trace(context, "-> [response:generate]", String.format("-> in: %s", getParent().getName()));
+    trace(context, "-> [response:generate]", () -> String.format("-> in: %s", getParent().getName()));
 
     getResponseType().generate(context, writer);
 
-    trace(context, "<- [response:generate]", String.format("-> out: %s", getParent().getName()));
+    trace(context, "<- [response:generate]", () -> String.format("-> out: %s", getParent().getName()));
     context.leave(this);
   }
 
   @Override
   public void select(final Context context, final Writer writer) throws IOException {
-    trace(context, "-> [response:select]", String.format("-> in: %s", getParent().getName()));
+    trace(context, "-> [response:select]", () -> String.format("-> in: %s", getParent().getName()));
     getResponseType().select(context, writer);
-    trace(context, "<- [response:select]", String.format("-> out: %s", getParent().getName()));
+    trace(context, "<- [response:select]", () -> String.format("-> out: %s", getParent().getName()));
   }
 }
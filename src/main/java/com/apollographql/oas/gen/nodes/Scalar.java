@@ -28,11 +28,11 @@ public class Scalar extends Type {
   @Override
   public void generate(final Context context, final Writer writer) throws IOException {
     context.enter(this);
-    trace(context, "-> [scalar::generate]", String.format("-> in: %s", this.getSimpleName()));
+    trace(context, "-> [scalar::generate]", () -> String.format("-> in: %s", this.getSimpleName()));
 
     writer.write(getName());
 
-    trace(context, "<- [scalar::generate]", String.format("-> out: %s", this.getSimpleName()));
+    trace(context, "<- [scalar::generate]", () -> String.format("-> out: %s", this.getSimpleName()));
     context.leave(this);
   }
 
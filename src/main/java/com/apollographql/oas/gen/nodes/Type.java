@@ -7,7 +7,6 @@ import com.apollographql.oas.gen.nodes.props.Prop;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static com.apollographql.oas.gen.log.Trace.trace;
 import static com.apollographql.oas.gen.log.Trace.warn;
@@ -16,6 +15,12 @@ public abstract class Type implements Cloneable {
   protected String name;
   protected List<Type> children = new LinkedList<>();
   private final Type parent;
+  private final int depth;
+
+  private static final String COMPONENTS_SCHEMAS = "#/components/schemas";
+  private static final String SHORT_COMPONENTS_SCHEMAS = "#/c/s";
+
+  private volatile PathCache pathCache;
 
   protected Map<String, Prop> props = new LinkedHashMap<>();
 
@@ -24,37 +29,77 @@ public abstract class Type implements Cloneable {
   public Type(final Type parent, final String name) {
     this.parent = parent;
     this.name = name;
+    this.depth = parent != null ? parent.depth + 1 : 0;
   }
 
   protected static Type findAncestor(final Type type) {
-    final List<Type> ancestors = getAncestors(type.getParent());
-    final int indexOf = ancestors.indexOf(type);
-    return indexOf > -1 ? (Ref) ancestors.get(indexOf) : null;
+    return type.getParent() != null ? (Ref) findEqualAncestor(type.getParent(), type) : null;
   }
 
+  /* the depth (i.e. index from the root) of the nearest ancestor of the given class, or -1 */
   protected static int findAncestorOf(final Type type, final Class clazz) {
-    final List<Type> ancestors = getAncestors(type.getParent());
-
-    for (int i = ancestors.size() - 1; i > -1; i--) {
-      final Type ancestor = ancestors.get(i);
+    for (Type ancestor = type.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
       if (ancestor.getClass().isAssignableFrom(clazz)) {
-        return i;
+        return ancestor.depth;
       }
     }
 
     return -1;
   }
 
+  /* the outermost type equal to target, from the root down to and including the given type -- this is
+   * getAncestors(type).indexOf(target) without building the list */
+  public static Type findEqualAncestor(final Type type, final Type target) {
+    Type found = null;
+    for (Type current = type; current != null; current = current.getParent()) {
+      if (current.equals(target)) {
+        found = current;
+      }
+    }
+
+    return found;
+  }
+
+  /* getAncestors(type).contains(target), without building the list */
+  public static boolean hasEqualAncestor(final Type type, final Type target) {
+    for (Type current = type; current != null; current = current.getParent()) {
+      if (current.equals(target)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /* number of ancestors, the root has depth 0 */
+  public int getDepth() {
+    return depth;
+  }
+
   public String id() {
     return getName();
   }
 
+  /* the parent's path plus our id, cached until our name or the parent's path changes */
   public String path() {
-    final List<Type> ancestors = getAncestors(this);
-    return ancestors.stream().map(t -> t.id())
-      .collect(Collectors.joining(">"))
-      .replaceAll("#/components/schemas", "#/c/s")
-      ;
+    final String parentPath = parent != null ? parent.path() : null;
+    final String source = idSource();
+
+    final PathCache cached = this.pathCache;
+    if (cached != null && cached.parentPath() == parentPath && cached.source() == source) {
+      return cached.path();
+    }
+
+    final String id = id().replace(COMPONENTS_SCHEMAS, SHORT_COMPONENTS_SCHEMAS);
+    final String path = parentPath != null ? parentPath + ">" + id : id;
+
+    this.pathCache = new PathCache(parentPath, source, path);
+    return path;
+  }
+
+  /* the value our id() is derived from, when it changes the cached path is rebuilt */
+  protected String idSource() {
+    return getName();
   }
 
   public abstract void visit(Context context);
@@ -81,7 +126,7 @@ public abstract class Type implements Cloneable {
       return;
     }
 
-    if (getAncestors(this).contains(child)) {
+    if (hasEqualAncestor(this, child)) {
       warn(null, "[context]", "Recursion? Ancestors contain this type already: \n" + Type.getRootPathFor(child));
       return;
     }
@@ -139,13 +184,31 @@ public abstract class Type implements Cloneable {
     return getSimpleName() + " (" + getClass().getSimpleName() + ")";
   }
 
-  public Set<Type> dependencies(final Context context) {
+  /* the types this one needs in the schema. Memoised when the context has a dependency cache: once a type has
+   * been asked, everything below it is visited, so asking again gives the same set */
+  public final Set<Type> dependencies(final Context context) {
+    final Map<Type, Set<Type>> cache = context.getDependencyCache();
+    if (cache == null) {
+      return computeDependencies(context);
+    }
+
+    final Set<Type> cached = cache.get(this);
+    if (cached != null) {
+      return cached;
+    }
+
+    final Set<Type> result = computeDependencies(context);
+    cache.put(this, result);
+    return result;
+  }
+
+  protected Set<Type> computeDependencies(final Context context) {
     if (!isVisited()) {
       visit(context);
     }
 
     context.enter(this);
-    trace(context, "-> [type:dependencies]", String.format("-> in: %s", getSimpleName()));
+    trace(context, "-> [type:dependencies]", () -> String.format("-> in: %s", getSimpleName()));
     final Set<Type> set = new HashSet<>(getChildren());
 
     // by default dependencies will be children, except in objects and composed types
@@ -155,13 +218,13 @@ public abstract class Type implements Cloneable {
         continue;
       }*/
 
-      trace(context, "  [type:dependencies]", "checking child " + child.getSimpleName());
+      trace(context, "  [type:dependencies]", () -> "checking child " + child.getSimpleName());
       final Set<Type> dependencies = child.dependencies(context);
-      trace(context, "  [type:dependencies]", "dependencies = " + dependencies);
+      trace(context, "  [type:dependencies]", () -> "dependencies = " + dependencies);
       set.addAll(dependencies);
     }
 
-    trace(context, "<- [type:dependencies]", String.format("<- out: %s", getSimpleName()));
+    trace(context, "<- [type:dependencies]", () -> String.format("<- out: %s", getSimpleName()));
     context.leave(this);
     return set;
   }
@@ -183,16 +246,22 @@ public abstract class Type implements Cloneable {
     return builder.toString();
   }
 
+  /* the outermost ancestor, i.e. the operation a visited type was reached from */
+  public static Type getRoot(final Type type) {
+    Type current = type;
+    while (current.getParent() != null) current = current.getParent();
+
+    return current;
+  }
+
   public static List<Type> getAncestors(Type type) {
-    List<Type> result = new LinkedList<>();
-    result.add(type);
+    final Type[] result = new Type[type.depth + 1];
 
-    Type parent = type;
-    while ((parent = parent.getParent()) != null) {
-      result.add(0, parent);
+    for (Type current = type; current != null; current = current.getParent()) {
+      result[current.depth] = current;
     }
 
-    return result;
+    return Arrays.asList(result);
   }
 
   protected String getOwner() {
@@ -242,6 +311,9 @@ public abstract class Type implements Cloneable {
     return found;
   }
 
+  private record PathCache(String parentPath, String source, String path) {
+  }
+
   @Override
   public Type clone() {
     try {
@@ -38,7 +38,7 @@ public class Union extends Type {
     if (isVisited()) return;
 
     context.enter(this);
-    trace(context, "-> [union:visit]", "in: " + getSchemas().stream().map(Schema::get$ref).toList());
+    trace(context, "-> [union:visit]", () -> "in: " + getSchemas().stream().map(Schema::get$ref).toList());
 
     if (!context.inContextOf(Composed.class, this))
       print(null, "In union: " + getOwner());
@@ -47,7 +47,7 @@ public class Union extends Type {
 
     for (final Schema<?> refSchema : getSchemas()) {
       final Type type = Factory.fromSchema(this, refSchema);
-      trace(context, " [union:visit]", "of type: " + type);
+      trace(context, " [union:visit]", () -> "of type: " + type);
 
       type.visit(context);
       collected.putAll(type.getProps());
@@ -62,7 +62,7 @@ public class Union extends Type {
 
     setVisited(true);
 
-    trace(context, "<- [union:visit]", "out: " + getSchemas().stream().map(Schema::get$ref).toList());
+    trace(context, "<- [union:visit]", () -> "out: " + getSchemas().stream().map(Schema::get$ref).toList());
     context.leave(this);
   }
 
@@ -80,7 +80,7 @@ public class Union extends Type {
     for (final Map.Entry<String, Prop> entry : collected.entrySet()) {
       final Prop prop = entry.getValue();
       if (addAll == 'y' || context.getPrompt().yesNo(prop.path(), "Add field '" + prop.forPrompt(context) + "'?")) {
-        trace(context, "   [union]", "prop: " + prop);
+        trace(context, "   [union]", () -> "prop: " + prop);
 
         // add property to our dependencies
         getProps().put(prop.getName(), prop);
@@ -95,7 +95,7 @@ public class Union extends Type {
   @Override
   public void generate(Context context, Writer writer) throws IOException {
     context.enter(this);
-    trace(context, "-> [union::generate]", "in: " + getSchemas().stream().map(Schema::get$ref).toList());
+    trace(context, "-> [union::generate]", () -> "in: " + getSchemas().stream().map(Schema::get$ref).toList());
 
     if (context.inContextOf(Param.class, this)) {
       for (Type child : getChildren()) {
@@ -110,7 +110,7 @@ public class Union extends Type {
       writer.append(String.join("# | ", getChildren().stream().map(Type::getName).toList()));
       writer.append("#\n\n");
 
-      trace(context, "   [union::generate]", String.format("[union] -> object: %s", this.getName()));
+      trace(context, "   [union::generate]", () -> String.format("[union] -> object: %s", this.getName()));
 
       writer.append("type ")
         .append(getSimpleName())
@@ -119,7 +119,7 @@ public class Union extends Type {
         .append("\n");
 
       for (Prop prop : this.getProps().values()) {
-        trace(context, "   [union::generate]", String.format("-> property: %s (parent: %s)", prop.getName(), prop.getParent().getSimpleName()));
+        trace(context, "   [union::generate]", () -> String.format("-> property: %s (parent: %s)", prop.getName(), prop.getParent().getSimpleName()));
         prop.generate(context, writer);
       }
 
@@ -128,18 +128,18 @@ public class Union extends Type {
         .append("\n\n");
     }
 
-    trace(context, "<- [union::generate]", "out: " + getSchemas().stream().map(Schema::get$ref).toList());
+    trace(context, "<- [union::generate]", () -> "out: " + getSchemas().stream().map(Schema::get$ref).toList());
     context.leave(this);
   }
 
   @Override
-  public Set<Type> dependencies(final Context context) {
+  protected Set<Type> computeDependencies(final Context context) {
     if (!isVisited()) {
       this.visit(context);
     }
 
     context.enter(this);
-    trace(context, "-> [union:dependencies]", "in: " + getSchemas().stream().map(Schema::get$ref).toList());
+    trace(context, "-> [union:dependencies]", () -> "in: " + getSchemas().stream().map(Schema::get$ref).toList());
 
     final Set<Type> set = new HashSet<>();
     for (Type p : getProps().values().stream()
@@ -148,7 +148,7 @@ public class Union extends Type {
       set.addAll(dependencies);
     }
 
-    trace(context, "<- [union::dependencies]", "out: " + getSchemas().stream().map(Schema::get$ref).toList());
+    trace(context, "<- [union::dependencies]", () -> "out: " + getSchemas().stream().map(Schema::get$ref).toList());
     context.leave(this);
     return set;
   }
@@ -55,20 +55,20 @@ public class Param extends Type {
     if (isVisited()) return;
 
     context.enter(this);
-    trace(context, "-> [param:visit]", "in: " + getName());
+    trace(context, "-> [param:visit]", () -> "in: " + getName());
 
     this.resultType = Factory.fromSchema(this, getSchema());
-    trace(context, "   [param:visit]", "type: " + resultType);
+    trace(context, "   [param:visit]", () -> "type: " + resultType);
     this.resultType.visit(context);
 
-    trace(context, "<- [param:visit]", "out: " + getName());
+    trace(context, "<- [param:visit]", () -> "out: " + getName());
     context.leave(this);
   }
 
   @Override
   public void generate(Context context, Writer writer) throws IOException {
     context.enter(this);
-    trace(context, "-> [param::generate]", String.format("-> in: %s", this.getSimpleName()));
+    trace(context, "-> [param::generate]", () -> String.format("-> in: %s", this.getSimpleName()));
 
     writer.write(Naming.genParamName(getName()));
     writer.write(": ");
@@ -83,7 +83,7 @@ public class Param extends Type {
       writeDefaultValue(writer);
     }
 
-    trace(context, "<- [param::generate]", String.format("-> out: %s", this.getSimpleName()));
+    trace(context, "<- [param::generate]", () -> String.format("-> out: %s", this.getSimpleName()));
     context.leave(this);
   }
 
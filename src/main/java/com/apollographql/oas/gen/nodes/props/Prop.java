@@ -66,11 +66,11 @@ public abstract class Prop extends Type {
 
   @Override
   public void select(final Context context, final Writer writer) throws IOException {
-    trace(context, "   [prop:select]", getName());
+    trace(context, "   [prop:select]", () -> getName());
     final String fieldName = getName();
     final String sanitised = Naming.sanitiseFieldForSelect(fieldName);
     writer
-      .append(" ".repeat(context.getIndent() + context.getStack().size()))
+      .append(context.indentation())
       .append(sanitised)
       .append("\n");
 
@@ -38,12 +38,10 @@ public class PropArray extends Prop {
 
   @Override
   public void add(final Type child) {
-    final List<Type> paths = Type.getAncestors(this);
-    final boolean contains = paths.contains(child);
-    trace(null, "-> [prop-array:add]", "contains child? " + contains);
+    final Type ancestor = Type.findEqualAncestor(this, child);
+    trace(null, "-> [prop-array:add]", () -> "contains child? " + (ancestor != null));
 
-    if (contains) {
-      final Type ancestor = paths.get(paths.indexOf(child));
+    if (ancestor != null) {
       final Type wrapper = Factory.fromCircularRef(this, ancestor);
       super.add(wrapper);
 
@@ -61,7 +59,7 @@ public class PropArray extends Prop {
     context.enter(this);
     trace(context, "-> [prop-array:visit]", "in");
 
-    trace(context, "   [prop-array:visit]", "type: " + getItems());
+    trace(context, "   [prop-array:visit]", () -> "type: " + getItems());
     getItems().visit(context);
     setVisited(true);
 
@@ -76,13 +74,13 @@ public class PropArray extends Prop {
 
   @Override
   public void select(final Context context, final Writer writer) throws IOException {
-    trace(context, "-> [prop-array:select]", "in: " + getName());
+    trace(context, "-> [prop-array:select]", () -> "in: " + getName());
 
     final String fieldName = getName();
     final String sanitised = Naming.sanitiseFieldForSelect(fieldName);
 
     writer
-      .append(" ".repeat(context.getIndent() + context.getStack().size()))
+      .append(context.indentation())
       .append(sanitised);
 
     if (needsBrackets(getItems())) {
@@ -100,7 +98,7 @@ public class PropArray extends Prop {
     if (needsBrackets(getItems())) {
       context.leave(this);
       writer
-        .append(" ".repeat(context.getIndent() + context.getStack().size()))
+        .append(context.indentation())
         .append("}");
     }
     writer.append("\n");
@@ -108,18 +106,18 @@ public class PropArray extends Prop {
     trace(context, "<- [prop:array:select]", "out");
   }
 
-  public Set<Type> dependencies(final Context context) {
+  protected Set<Type> computeDependencies(final Context context) {
     if (!isVisited()) {
       this.visit(context);
     }
 
     context.enter(this);
-    trace(context, "-> [prop-array:dependencies]", "in: " + path());
+    trace(context, "-> [prop-array:dependencies]", () -> "in: " + path());
 
     final Set<Type> set = new HashSet<>();
     set.add(getItems());
 
-    trace(context, "<- [prop:array:dependencies]", "out: " + path());
+    trace(context, "<- [prop:array:dependencies]", () -> "out: " + path());
     context.leave(this);
     return set;
   }
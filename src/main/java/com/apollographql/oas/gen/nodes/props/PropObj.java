@@ -55,17 +55,17 @@ public class PropObj extends Prop implements Cloneable {
   }
 
   @Override
-  public Set<Type> dependencies(final Context context) {
+  protected Set<Type> computeDependencies(final Context context) {
     if (!isVisited()) {
       this.visit(context);
     }
 
     context.enter(this);
-    trace(context, "-> [prop-obj:dependencies]", "in: " + getName());
+    trace(context, "-> [prop-obj:dependencies]", () -> "in: " + getName());
 
     var result = Set.of(getObj());
 
-    trace(context, "<- [prop-obj:dependencies]", "out: " + getName());
+    trace(context, "<- [prop-obj:dependencies]", () -> "out: " + getName());
     context.leave(this);
     return result;
   }
@@ -75,7 +75,7 @@ public class PropObj extends Prop implements Cloneable {
     if (isVisited()) return;
 
     context.enter(this);
-    trace(context, "-> [prop-obj:visit]", "in " + getName() + ", obj: " + getObj().getSimpleName());
+    trace(context, "-> [prop-obj:visit]", () -> "in " + getName() + ", obj: " + getObj().getSimpleName());
 
     getObj().visit(context);
 
@@ -85,19 +85,19 @@ public class PropObj extends Prop implements Cloneable {
 
     setVisited(true);
 
-    trace(context, "<- [prop-obj:visit]", "out " + getName() + ", obj: " + getObj().getSimpleName());
+    trace(context, "<- [prop-obj:visit]", () -> "out " + getName() + ", obj: " + getObj().getSimpleName());
     context.leave(this);
   }
 
   @Override
   public void select(final Context context, final Writer writer) throws IOException {
-    trace(context, "-> [prop-obj:select]", "in " + getName() + ", obj: " + getObj().getSimpleName());
+    trace(context, "-> [prop-obj:select]", () -> "in " + getName() + ", obj: " + getObj().getSimpleName());
 
     final String fieldName = getName();
     final String sanitised = Naming.sanitiseFieldForSelect(fieldName);
 
     writer
-      .append(" ".repeat(context.getIndent() + context.getStack().size()))
+      .append(context.indentation())
       .append(sanitised);
 
     if (needsBrackets(getObj())) {
@@ -113,13 +113,13 @@ public class PropObj extends Prop implements Cloneable {
     if (needsBrackets(getObj())) {
       context.leave(this);
       writer
-        .append(" ".repeat(context.getIndent() + context.getStack().size()))
+        .append(context.indentation())
         .append("}");
 
       writer.append("\n");
     }
 
-    trace(context, "<- [prop-obj:select]", "out " + getName() + ", obj: " + getObj().getSimpleName());
+    trace(context, "<- [prop-obj:select]", () -> "out " + getName() + ", obj: " + getObj().getSimpleName());
   }
 
   private boolean needsBrackets(Type child) {
@@ -51,12 +51,10 @@ public class PropRef extends Prop implements Cloneable {
   public void add(final Type child) {
     child.setName(getRef());
 
-    final List<Type> paths = Type.getAncestors(this);
-    final boolean contains = paths.contains(child);
-    trace(null, "-> [prop-ref:add]", "contains child? " + contains);
+    final Type ancestor = Type.findEqualAncestor(this, child);
+    trace(null, "-> [prop-ref:add]", () -> "contains child? " + (ancestor != null));
 
-    if (contains) {
-      final Type ancestor = paths.get(paths.indexOf(child));
+    if (ancestor != null) {
       final Type wrapper = Factory.fromCircularRef(this, ancestor);
       super.add(wrapper);
 
@@ -73,7 +71,7 @@ public class PropRef extends Prop implements Cloneable {
     if (isVisited()) return;
 
     context.enter(this);
-    trace(context, "-> [prop-ref:visit]", "in " + getName() + ", ref: " + getRef());
+    trace(context, "-> [prop-ref:visit]", () -> "in " + getName() + ", ref: " + getRef());
 
     final Schema schema = context.lookupRef(getRef());
     assert schema != null;
@@ -92,13 +90,13 @@ public class PropRef extends Prop implements Cloneable {
       setVisited(true);
     }
 
-    trace(context, "<- [prop-ref:visit]", "out " + getName() + ", ref: " + getRef());
+    trace(context, "<- [prop-ref:visit]", () -> "out " + getName() + ", ref: " + getRef());
     context.leave(this);
   }
 
   @Override
-  public Set<Type> dependencies(final Context context) {
-    return super.dependencies(context);
+  protected Set<Type> computeDependencies(final Context context) {
+    return super.computeDependencies(context);
   }
 
   /* Unfortunately we cannot delegate this to the subtype, otherwise the entire type would
@@ -118,13 +116,13 @@ public class PropRef extends Prop implements Cloneable {
 
   @Override
   public void select(final Context context, final Writer writer) throws IOException {
-    trace(context, "-> [prop-ref:select]", "in " + getName() + ", ref: " + getRef());
+    trace(context, "-> [prop-ref:select]", () -> "in " + getName() + ", ref: " + getRef());
 
     final String fieldName = getName();
     final String sanitised = Naming.sanitiseFieldForSelect(fieldName);
 
     writer
-      .append(" ".repeat(context.getIndent() + context.getStack().size()))
+      .append(context.indentation())
       .append(sanitised);
 
     if (needsBrackets(getRefType())) {
@@ -140,13 +138,13 @@ public class PropRef extends Prop implements Cloneable {
     if (needsBrackets(getRefType())) {
       context.leave(this);
       writer
-        .append(" ".repeat(context.getIndent() + context.getStack().size()))
+        .append(context.indentation())
         .append("}");
 
     }
     writer.append("\n");
 
-    trace(context, "<- [prop-ref:select]", "out " + getName() + ", ref: " + getRef());
+    trace(context, "<- [prop-ref:select]", () -> "out " + getName() + ", ref: " + getRef());
   }
 
   private boolean needsBrackets(Type child) {
@@ -59,7 +59,7 @@ public class PropScalar extends Prop {
   }
 
   @Override
-  public Set<Type> dependencies(final Context context) {
+  protected Set<Type> computeDependencies(final Context context) {
     return Collections.emptySet();
   }
 }
@@ -0,0 +1,157 @@
+package com.apollographql.oas.gen.output;
+
+import com.apollographql.oas.gen.naming.Naming;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.parameters.Parameter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/* the http block of a GET @connect directive, compiled once per operation: the path template split into
+ * literal and '{param}' segments (only alphanumeric names become $args), the required query parameters and
+ * the headers. Rendering it is just appending the pieces. */
+public class HttpTemplate {
+  private final List<Segment> path;
+  private final List<Query> queries;
+  private final List<Header> headers;
+  private final boolean hasParameters;
+
+  private HttpTemplate(final List<Segment> path, final List<Query> queries, final List<Header> headers,
+                       final boolean hasParameters) {
+    this.path = path;
+    this.queries = queries;
+    this.headers = headers;
+    this.hasParameters = hasParameters;
+  }
+
+  /* hasParameters: whether the operation ended up with any (non header) parameters, query strings and headers
+   * are only rendered when it did */
+  public static HttpTemplate compile(final String path, final Operation operation, final boolean hasParameters) {
+    final List<Query> queries = new ArrayList<>();
+    final List<Header> headers = new ArrayList<>();
+
+    if (hasParameters) {
+      for (final Parameter p : operation.getParameters()) {
+        final String in = p.getIn();
+        if (in == null) continue;
+
+        if (Boolean.TRUE.equals(p.getRequired()) && in.equalsIgnoreCase("query")) {
+          queries.add(new Query(p.getName(), Naming.genParamName(p.getName())));
+        }
+        else if (in.equalsIgnoreCase("header")) {
+          headers.add(new Header(p.getName(), headerValue(p)));
+        }
+      }
+    }
+
+    return new HttpTemplate(parse(path), Collections.unmodifiableList(queries),
+      Collections.unmodifiableList(headers), hasParameters);
+  }
+
+  /* literal text and '{name}' variables, where name is [a-zA-Z0-9]+ */
+  static List<Segment> parse(final String path) {
+    final List<Segment> segments = new ArrayList<>();
+
+    int literal = 0;
+    int i = 0;
+    while (i < path.length()) {
+      if (path.charAt(i) == '{') {
+        int end = i + 1;
+        while (end < path.length() && isAlphanumeric(path.charAt(end))) end++;
+
+        if (end > i + 1 && end < path.length() && path.charAt(end) == '}') {
+          if (literal < i) segments.add(new Segment(path.substring(literal, i), false));
+          segments.add(new Segment(path.substring(i + 1, end), true));
+
+          i = end + 1;
+          literal = i;
+          continue;
+        }
+      }
+
+      i++;
+    }
+
+    if (literal < path.length()) segments.add(new Segment(path.substring(literal), false));
+    return Collections.unmodifiableList(segments);
+  }
+
+  private static boolean isAlphanumeric(final char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+  }
+
+  private static String headerValue(final Parameter p) {
+    String value = null;
+    if (p.getExample() != null)
+      value = p.getExample().toString();
+
+    if (p.getExamples() != null && p.getExamples().isEmpty())
+      value = String.join(",", p.getExamples().keySet());
+
+    return value != null ? value : "<placeholder>";
+  }
+
+  /* { GET: "path?query" headers: [...] } */
+  public void write(final Appendable out) throws IOException {
+    out.append("{ GET: \"");
+
+    for (final Segment segment : path) {
+      if (segment.variable()) {
+        out.append("{$args.").append(segment.text()).append('}');
+      }
+      else {
+        out.append(segment.text());
+      }
+    }
+
+    if (!hasParameters) {
+      out.append("\" }");
+      return;
+    }
+
+    for (int i = 0; i < queries.size(); i++) {
+      final Query query = queries.get(i);
+      out.append(i == 0 ? '?' : '&')
+        .append(query.name()).append("={$args.").append(query.arg()).append('}');
+    }
+
+    out.append("\"\n");
+
+    if (!headers.isEmpty()) {
+      out.append(SchemaWriter.indent(6)).append("headers: [\n");
+
+      for (final Header header : headers) {
+        out.append(SchemaWriter.indent(8))
+          .append("{ name: \"").append(header.name()).append("\", value: \"").append(header.value()).append("\" }\n");
+      }
+
+      out.append(SchemaWriter.indent(6)).append(']');
+    }
+
+    out.append(" }");
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    try {
+      write(builder);
+    }
+    catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+
+    return builder.toString();
+  }
+
+  record Segment(String text, boolean variable) {
+  }
+
+  private record Query(String name, String arg) {
+  }
+
+  private record Header(String name, String value) {
+  }
+}
@@ -0,0 +1,150 @@
+package com.apollographql.oas.gen.output;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/* the sink schemas are written to. Appends are copied into a reusable buffer and only reach the underlying
+ * writer when it fills up (or on flush), indentation comes from a shared run of spaces, so writing a selection
+ * allocates next to nothing per field. Not thread safe, one per writeSchema call. */
+public class SchemaWriter extends Writer {
+  private static final int BUFFER_SIZE = 8192;
+
+  // indentation strings, index is the width
+  private static volatile String[] indents = buildIndents(64);
+
+  private final Writer out;
+  private final char[] buffer = new char[BUFFER_SIZE];
+  private int position = 0;
+
+  public SchemaWriter(final Writer out) {
+    this.out = out;
+  }
+
+  /* the writer itself when it's already a sink, otherwise a sink wrapping it */
+  public static SchemaWriter of(final Writer writer) {
+    return writer instanceof SchemaWriter sink ? sink : new SchemaWriter(writer);
+  }
+
+  /* a cached string of the given number of spaces */
+  public static String indent(final int width) {
+    String[] cached = indents;
+    if (width >= cached.length) {
+      cached = buildIndents(Math.max(width + 1, cached.length * 2));
+      indents = cached;
+    }
+
+    return cached[width];
+  }
+
+  private static String[] buildIndents(final int count) {
+    final char[] chars = new char[count];
+    Arrays.fill(chars, ' ');
+
+    final String[] result = new String[count];
+    for (int i = 0; i < count; i++) {
+      result[i] = new String(chars, 0, i);
+    }
+
+    return result;
+  }
+
+  public SchemaWriter spaces(final int width) throws IOException {
+    write(indent(width));
+    return this;
+  }
+
+  /* a double quoted string, the value isn't escaped */
+  public SchemaWriter quoted(final String value) throws IOException {
+    write('"');
+    write(value);
+    write('"');
+    return this;
+  }
+
+  public SchemaWriter line(final String text) throws IOException {
+    write(text);
+    write('\n');
+    return this;
+  }
+
+  @Override
+  public void write(final int c) throws IOException {
+    if (position == buffer.length) drain();
+    buffer[position++] = (char) c;
+  }
+
+  @Override
+  public void write(final char[] chars, final int offset, final int length) throws IOException {
+    if (length >= buffer.length) {
+      drain();
+      out.write(chars, offset, length);
+      return;
+    }
+
+    if (length > buffer.length - position) drain();
+    System.arraycopy(chars, offset, buffer, position, length);
+    position += length;
+  }
+
+  @Override
+  public void write(final String str, final int offset, final int length) throws IOException {
+    int from = offset;
+    int remaining = length;
+
+    while (remaining > 0) {
+      if (position == buffer.length) drain();
+
+      final int count = Math.min(remaining, buffer.length - position);
+      str.getChars(from, from + count, buffer, position);
+      position += count;
+      from += count;
+      remaining -= count;
+    }
+  }
+
+  @Override
+  public void write(final String str) throws IOException {
+    write(str, 0, str.length());
+  }
+
+  @Override
+  public SchemaWriter append(final CharSequence csq) throws IOException {
+    if (csq instanceof String str) {
+      write(str, 0, str.length());
+    }
+    else {
+      final CharSequence value = csq != null ? csq : "null";
+      for (int i = 0; i < value.length(); i++) {
+        write(value.charAt(i));
+      }
+    }
+
+    return this;
+  }
+
+  @Override
+  public SchemaWriter append(final char c) throws IOException {
+    write(c);
+    return this;
+  }
+
+  private void drain() throws IOException {
+    if (position > 0) {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    drain();
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+    out.close();
+  }
+}
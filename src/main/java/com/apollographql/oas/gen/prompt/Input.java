@@ -3,4 +3,9 @@ package com.apollographql.oas.gen.prompt;
 public interface Input {
   boolean yesNo(final String id, final String prompt);
   char yesNoSelect(final String id, final String prompt);
+
+  /* whether answers depend only on the id, so they can be asked from several threads in any order */
+  default boolean isConcurrent() {
+    return false;
+  }
 }
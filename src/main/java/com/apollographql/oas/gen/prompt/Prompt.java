@@ -110,6 +110,11 @@ public class Prompt {
       else if (next.equalsIgnoreCase("s")) return 's';
       else return 'n';
     }
+
+    @Override
+    public boolean isConcurrent() {
+      return true;
+    }
   }
 
   public static class Recorder extends Prompt.ConsoleInput {
@@ -184,6 +189,11 @@ public class Prompt {
         public char yesNoSelect(final String id, final String prompt) {
           return 'y';
         }
+
+        @Override
+        public boolean isConcurrent() {
+          return true;
+        }
       };
     }
 
@@ -1,27 +1,39 @@
 package com.apollographql.oas.web;
 
 import com.apollographql.oas.gen.WebGenerator;
-import com.apollographql.oas.gen.nodes.Composed;
 import com.apollographql.oas.gen.nodes.GetOp;
 import com.apollographql.oas.gen.nodes.Type;
-import com.apollographql.oas.gen.nodes.Union;
 import com.apollographql.oas.gen.nodes.props.PropScalar;
-import com.apollographql.oas.gen.prompt.Prompt;
+import com.apollographql.oas.web.job.Job;
+import com.apollographql.oas.web.job.JobNotFoundException;
+import com.apollographql.oas.web.job.JobRejectedException;
+import com.apollographql.oas.web.session.SessionNotFoundException;
 import com.apollographql.oas.web.storage.StorageService;
 import jakarta.websocket.server.PathParam;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 @RestController
 public class ConnectorGenController {
+  // how long a client can stay subscribed to a job's events
+  private static final long JOB_EVENTS_TIMEOUT = 30 * 60 * 1000L;
+
   private final StorageService storageService;
   private final GeneratorService generatorService;
 
@@ -47,12 +59,24 @@ public class ConnectorGenController {
 
   @GetMapping("/list-files")
   public Map<String, String> listUploadedFiles() throws IOException {
-    return storageService.loadAll()
-      .map(path -> path.getFileName().toString())
-      .collect(Collectors.toMap(
-        item -> item,          // Key: the item itself
-        item -> DigestUtils.md5Hex(item).toUpperCase()  // Value: length of the item
-      ));
+    final Map<String, String> files = new LinkedHashMap<>();
+    for (final Path path : storageService.loadAll().toList()) {
+      final String fileName = path.getFileName().toString();
+      // sessions are keyed by contents, not by file name
+      files.put(fileName, generatorService.hash(storageService.load(fileName)));
+    }
+
+    return files;
+  }
+
+  @DeleteMapping("/visit/{md5}")
+  public Map<String, Object> close(@PathVariable String md5) {
+    return Map.of("closed", generatorService.close(md5));
+  }
+
+  @GetMapping("/stats")
+  public Map<String, Object> stats() {
+    return generatorService.stats();
   }
 
   @GetMapping("/visit/{md5}/path")
@@ -93,15 +117,7 @@ public class ConnectorGenController {
       final Map<String, Object> result = new LinkedHashMap<>();
       result.put("parent", found.getName());
 
-      Collection<? extends Type> values;
-      if ((found instanceof Composed || found instanceof Union) && !found.getProps().isEmpty()) {
-        values = found.getProps().values();
-      }
-      else {
-        values = found.getChildren();
-      }
-
-      result.put("result", values.stream().map(t -> Map.<String, Object>of(
+      result.put("result", generator.listChildren(found).stream().map(t -> Map.<String, Object>of(
         "id", t.id(),
         "path", t.path(),
         "name", t.getName(),
@@ -120,23 +136,117 @@ public class ConnectorGenController {
   public Map<String, String> generate(@PathVariable String md5, @RequestBody Map<String, String> items) throws IOException {
     System.out.println("records = " + items);
 
-    final WebGenerator generator = this.generatorService.get(md5);
+    return Map.of("result", generatorService.generate(md5, items));
+  }
+
+  /* same as generate, but the schema is the (chunked text/plain) response body rather than a json field, and
+   * it's written to it as it's generated, on the async request thread. Cached results are served as they are,
+   * new ones aren't cached, see GeneratorService.stream */
+  @PostMapping(value = "/visit/{md5}/generate/stream", produces = MediaType.TEXT_PLAIN_VALUE)
+  public ResponseEntity<StreamingResponseBody> generateStream(@PathVariable String md5,
+                                                              @RequestBody Map<String, String> items) {
+    // look up the session now, so a missing one is still a 404 rather than a broken stream
+    this.generatorService.get(md5);
+
+    final StreamingResponseBody body = output -> {
+      final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+      generatorService.stream(md5, items, writer);
+      writer.flush();
+    };
+
+    return ResponseEntity.ok()
+      .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+      .body(body);
+  }
+
+  /* generation as a job: returns its id straight away, see /jobs/{id} */
+  @PostMapping("/visit/{md5}/jobs")
+  public ResponseEntity<Map<String, Object>> submit(@PathVariable String md5, @RequestBody Map<String, String> items) {
+    final Job job = generatorService.submit(md5, items);
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toMap());
+  }
+
+  @GetMapping("/jobs/{id}")
+  public Map<String, Object> job(@PathVariable String id) {
+    return generatorService.getJob(id).toMap();
+  }
+
+  /* server sent events: a 'progress' event per path, then one 'done', 'failed' or 'cancelled' event */
+  @GetMapping(value = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter events(@PathVariable String id) {
+    final Job job = generatorService.getJob(id);
+    final SseEmitter emitter = new SseEmitter(JOB_EVENTS_TIMEOUT);
+    final AtomicBoolean closed = new AtomicBoolean();
+
+    final Consumer<Job> listener = new Consumer<>() {
+      @Override
+      public void accept(final Job current) {
+        if (closed.get()) return;
+
+        final Job.State state = current.getState();
+        try {
+          emitter.send(SseEmitter.event()
+            .name(state.isFinal() ? state.name().toLowerCase() : "progress")
+            .data(current.toMap(), MediaType.APPLICATION_JSON));
+
+          if (state.isFinal() && closed.compareAndSet(false, true)) emitter.complete();
+        }
+        catch (IOException | IllegalStateException e) {
+          // the client went away
+          closed.set(true);
+          current.unsubscribe(this);
+        }
+      }
+    };
+
+    emitter.onCompletion(() -> job.unsubscribe(listener));
+    emitter.onTimeout(() -> job.unsubscribe(listener));
+    job.subscribe(listener);
+    return emitter;
+  }
+
+  @GetMapping(value = "/jobs/{id}/result", produces = MediaType.TEXT_PLAIN_VALUE)
+  public ResponseEntity<String> result(@PathVariable String id) {
+    final Job job = generatorService.getJob(id);
 
-    final StringWriter writer = new StringWriter();
-    generator.writeSchema(writer, Prompt.create(Prompt.Factory.mapPlayer(items)));
+    return switch (job.getState()) {
+      case DONE -> ResponseEntity.ok(job.getResult());
+      case FAILED -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(job.getError());
+      case CANCELLED -> ResponseEntity.status(HttpStatus.GONE).body("Job was cancelled");
+      default -> ResponseEntity.status(HttpStatus.ACCEPTED).body("Job is " + job.getState().name().toLowerCase());
+    };
+  }
+
+  @DeleteMapping("/jobs/{id}")
+  public Map<String, Object> cancel(@PathVariable String id) {
+    return Map.of("cancelled", generatorService.cancelJob(id));
+  }
+
+  @ExceptionHandler(JobNotFoundException.class)
+  public ResponseEntity<Map<String, String>> handleJobNotFound(JobNotFoundException exc) {
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", exc.getMessage()));
+  }
+
+  @ExceptionHandler(JobRejectedException.class)
+  public ResponseEntity<Map<String, String>> handleJobRejected(JobRejectedException exc) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", exc.getMessage()));
+  }
 
-    return Map.of("result", writer.toString());
+  @ExceptionHandler(SessionNotFoundException.class)
+  public ResponseEntity<Map<String, String>> handleSessionNotFound(SessionNotFoundException exc) {
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", exc.getMessage()));
   }
 
   @PostMapping("/upload")
   public Map<String, Object> handleFileUpload(@RequestParam("file") MultipartFile file) throws IOException {
     final Path destination = storageService.store(file);
     final String fileName = file.getOriginalFilename();
-    final List<String> paths = generatorService.parse(fileName, destination);
+    final String md5 = generatorService.parse(destination);
+    final List<String> paths = generatorService.get(md5).listGetPaths();
 
     final Map<String, Object> response = new LinkedHashMap<>();
     response.put("filename", fileName);
-    response.put("md5", DigestUtils.md5Hex(fileName).toUpperCase());
+    response.put("md5", md5);
     response.put("paths", paths);
 
     return response;
@@ -0,0 +1,115 @@
+package com.apollographql.oas.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties("generator")
+public class GeneratorProperties {
+
+  /**
+   * Maximum number of parsed specs kept in memory
+   */
+  private int specCacheSize = 8;
+
+  /**
+   * Maximum number of generator sessions kept in memory
+   */
+  private int sessionMaxEntries = 32;
+
+  /**
+   * Upper bound for the estimated heap retained by all sessions
+   */
+  private DataSize sessionMaxRetained = DataSize.ofMegabytes(512);
+
+  /**
+   * Sessions idle for longer than this are evicted
+   */
+  private Duration sessionIdleTtl = Duration.ofMinutes(30);
+
+  /**
+   * Maximum number of generated schemas kept in memory, keyed by spec and selection
+   */
+  private int outputCacheSize = 16;
+
+  /**
+   * Number of generation jobs running at the same time
+   */
+  private int jobThreads = 2;
+
+  /**
+   * Generation jobs waiting for a thread, further submissions are rejected
+   */
+  private int jobQueueCapacity = 16;
+
+  /**
+   * Finished generation jobs (and their results) are kept for this long
+   */
+  private Duration jobRetention = Duration.ofMinutes(10);
+
+  public int getSpecCacheSize() {
+    return specCacheSize;
+  }
+
+  public void setSpecCacheSize(int specCacheSize) {
+    this.specCacheSize = specCacheSize;
+  }
+
+  public int getSessionMaxEntries() {
+    return sessionMaxEntries;
+  }
+
+  public void setSessionMaxEntries(int sessionMaxEntries) {
+    this.sessionMaxEntries = sessionMaxEntries;
+  }
+
+  public DataSize getSessionMaxRetained() {
+    return sessionMaxRetained;
+  }
+
+  public void setSessionMaxRetained(DataSize sessionMaxRetained) {
+    this.sessionMaxRetained = sessionMaxRetained;
+  }
+
+  public Duration getSessionIdleTtl() {
+    return sessionIdleTtl;
+  }
+
+  public void setSessionIdleTtl(Duration sessionIdleTtl) {
+    this.sessionIdleTtl = sessionIdleTtl;
+  }
+
+  public int getOutputCacheSize() {
+    return outputCacheSize;
+  }
+
+  public void setOutputCacheSize(int outputCacheSize) {
+    this.outputCacheSize = outputCacheSize;
+  }
+
+  public int getJobThreads() {
+    return jobThreads;
+  }
+
+  public void setJobThreads(int jobThreads) {
+    this.jobThreads = jobThreads;
+  }
+
+  public int getJobQueueCapacity() {
+    return jobQueueCapacity;
+  }
+
+  public void setJobQueueCapacity(int jobQueueCapacity) {
+    this.jobQueueCapacity = jobQueueCapacity;
+  }
+
+  public Duration getJobRetention() {
+    return jobRetention;
+  }
+
+  public void setJobRetention(Duration jobRetention) {
+    this.jobRetention = jobRetention;
+  }
+
+}
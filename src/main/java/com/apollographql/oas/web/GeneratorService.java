@@ -1,15 +1,41 @@
 package com.apollographql.oas.web;
 
 import com.apollographql.oas.gen.WebGenerator;
+import com.apollographql.oas.web.job.Job;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.Map;
 
 public interface GeneratorService {
   void init();
 
   public WebGenerator get(final String md5);
 
-  public List<String> parse(final String fileName, final Path file) throws IOException;
+  /* parses the file (or reuses a previously parsed copy of the same contents) and returns its md5 */
+  public String parse(final Path file) throws IOException;
+
+  /* the md5 a stored file is (or would be) registered under */
+  public String hash(final Path file) throws IOException;
+
+  public boolean close(final String md5);
+
+  public void sweep();
+
+  /* the schema for the given selection, shared with concurrent identical calls and cached, see OutputCache */
+  public String generate(final String md5, final Map<String, String> selection) throws IOException;
+
+  /* writes the schema for the given selection as it's generated, or a cached one. Unlike generate, a new one
+   * isn't shared or kept, so it's never held in memory as a whole */
+  public void stream(final String md5, final Map<String, String> selection, final Writer writer) throws IOException;
+
+  /* queues a generation with the given selection, see JobRunner */
+  public Job submit(final String md5, final Map<String, String> selection);
+
+  public Job getJob(final String id);
+
+  public boolean cancelJob(final String id);
+
+  public Map<String, Object> stats();
 }
@@ -1,20 +1,54 @@
 package com.apollographql.oas.web;
 
 import com.apollographql.oas.gen.WebGenerator;
+import com.apollographql.oas.gen.naming.Naming;
 import com.apollographql.oas.gen.prompt.Prompt;
-import org.apache.commons.codec.digest.DigestUtils;
+import com.apollographql.oas.web.cache.OutputCache;
+import com.apollographql.oas.web.cache.SpecCache;
+import com.apollographql.oas.web.job.Job;
+import com.apollographql.oas.web.job.JobRunner;
+import com.apollographql.oas.web.session.Session;
+import com.apollographql.oas.web.session.SessionNotFoundException;
+import com.apollographql.oas.web.session.SessionRegistry;
+import io.swagger.v3.oas.models.OpenAPI;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
 @Service
 public class GeneratorServiceImpl implements GeneratorService {
-  private Map<String, WebGenerator> map = new LinkedHashMap<>();
+  // rough ratio between the size of a spec on disk and the parsed model + visited graph in memory
+  private static final int RETAINED_BYTES_PER_SPEC_BYTE = 20;
+
+  private final SpecCache specs;
+  private final SessionRegistry sessions;
+  private final OutputCache outputs;
+  private final JobRunner jobs;
+
+  @Autowired
+  public GeneratorServiceImpl(GeneratorProperties properties) {
+    this.specs = new SpecCache(properties.getSpecCacheSize());
+    this.sessions = new SessionRegistry(
+      properties.getSessionMaxEntries(),
+      properties.getSessionMaxRetained().toBytes(),
+      properties.getSessionIdleTtl()
+    );
+    this.outputs = new OutputCache(properties.getOutputCacheSize());
+    this.jobs = new JobRunner(
+      properties.getJobThreads(),
+      properties.getJobQueueCapacity(),
+      properties.getJobRetention()
+    );
+  }
 
   @Autowired
   public void init() {
@@ -22,16 +56,107 @@ public class GeneratorServiceImpl implements GeneratorService {
   }
 
   public WebGenerator get(final String md5) {
-    return map.get(md5);
+    final Session session = sessions.get(md5);
+    if (session == null) {
+      throw new SessionNotFoundException("No generator session found for '" + md5 + "', please upload the spec again");
+    }
+
+    return session.getGenerator();
   }
 
   @Override
-  public List<String> parse(final String fileName, final Path file) throws IOException {
-    final WebGenerator generator = WebGenerator.fromFile(file.toAbsolutePath().toString(),
-      Prompt.create(Prompt.Factory.yes())
-    );
-    map.put(DigestUtils.md5Hex(fileName).toUpperCase(), generator);
+  public String parse(final Path file) throws IOException {
+    final String md5 = specs.hashOf(file);
+    final OpenAPI parser = specs.load(md5, file);
+
+    sessions.register(md5,
+      () -> new WebGenerator(parser, Prompt.create(Prompt.Factory.yes())),
+      Files.size(file) * RETAINED_BYTES_PER_SPEC_BYTE);
+
+    return md5;
+  }
+
+  @Override
+  public String hash(final Path file) throws IOException {
+    return specs.hashOf(file);
+  }
+
+  @Override
+  public boolean close(final String md5) {
+    return sessions.close(md5);
+  }
+
+  @Override
+  @Scheduled(fixedDelayString = "${generator.session-sweep-interval:60000}")
+  public void sweep() {
+    sessions.sweep();
+    jobs.sweep();
+  }
+
+  @Override
+  public String generate(final String md5, final Map<String, String> selection) throws IOException {
+    final WebGenerator generator = get(md5);
+
+    return outputs.get(OutputCache.key(md5, selection), () -> {
+      final StringWriter writer = new StringWriter();
+      generator.writeSchema(writer, Prompt.create(Prompt.Factory.mapPlayer(selection)));
+      sessions.resize(md5);
+      return writer.toString();
+    });
+  }
+
+  @Override
+  public void stream(final String md5, final Map<String, String> selection, final Writer writer) throws IOException {
+    final WebGenerator generator = get(md5);
+
+    final String cached = outputs.get(OutputCache.key(md5, selection));
+    if (cached != null) {
+      writer.write(cached);
+      return;
+    }
 
-    return generator.listGetPaths();
+    generator.writeSchema(writer, Prompt.create(Prompt.Factory.mapPlayer(selection)));
+    sessions.resize(md5);
+  }
+
+  @Override
+  public Job submit(final String md5, final Map<String, String> selection) {
+    final String key = OutputCache.key(md5, selection);
+    final Job job = jobs.submit(md5, get(md5), selection);
+
+    // finished jobs feed the cache, so a later generate for the same selection is free
+    job.subscribe(j -> {
+      if (j.getState() == Job.State.DONE) {
+        outputs.put(key, j.getResult());
+        sessions.resize(md5);
+      }
+    });
+    return job;
+  }
+
+  @Override
+  public Job getJob(final String id) {
+    return jobs.get(id);
+  }
+
+  @Override
+  public boolean cancelJob(final String id) {
+    return jobs.cancel(id);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    jobs.shutdown();
+  }
+
+  @Override
+  public Map<String, Object> stats() {
+    final Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("specs", specs.stats());
+    stats.put("sessions", sessions.stats());
+    stats.put("outputs", outputs.stats());
+    stats.put("jobs", jobs.stats());
+    stats.put("naming", Naming.stats());
+    return stats;
   }
 }
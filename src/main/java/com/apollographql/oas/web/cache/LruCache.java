@@ -0,0 +1,138 @@
+package com.apollographql.oas.web.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/* a small, size-bounded LRU map with hit/miss/eviction counters. All access goes through a single lock,
+ * which is fine as long as values are computed outside of it. It's a ReentrantLock rather than the monitor so
+ * virtual threads waiting on it can unmount. */
+public class LruCache<K, V> {
+  private final int maxEntries;
+  private final Map<K, V> entries;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  public LruCache(final int maxEntries) {
+    this(maxEntries, (key, value) -> {});
+  }
+
+  /* the listener is called with every evicted entry, whilst the lock is held */
+  public LruCache(final int maxEntries, final BiConsumer<K, V> evicted) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("Cache size should be at least 1, not: " + maxEntries);
+    }
+
+    this.maxEntries = maxEntries;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+        final boolean evict = size() > LruCache.this.maxEntries;
+        if (evict) {
+          evictions.incrementAndGet();
+          evicted.accept(eldest.getKey(), eldest.getValue());
+        }
+        return evict;
+      }
+    };
+  }
+
+  public V get(final K key) {
+    final V value;
+    lock.lock();
+    try {
+      value = entries.get(key);
+    }
+    finally {
+      lock.unlock();
+    }
+
+    if (value != null) hits.incrementAndGet();
+    else misses.incrementAndGet();
+
+    return value;
+  }
+
+  /* same as get, without counting a hit or a miss */
+  public V peek(final K key) {
+    lock.lock();
+    try {
+      return entries.get(key);
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  public void put(final K key, final V value) {
+    lock.lock();
+    try {
+      entries.put(key, value);
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /* the value already there, or null when the given one was added */
+  public V putIfAbsent(final K key, final V value) {
+    lock.lock();
+    try {
+      return entries.putIfAbsent(key, value);
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  public V remove(final K key) {
+    lock.lock();
+    try {
+      return entries.remove(key);
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  public Map<String, Object> stats() {
+    final Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("size", size());
+    stats.put("maxEntries", getMaxEntries());
+    stats.put("hits", getHits());
+    stats.put("misses", getMisses());
+    stats.put("evictions", getEvictions());
+    return stats;
+  }
+}
@@ -0,0 +1,117 @@
+package com.apollographql.oas.web.cache;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* generated schemas keyed by (spec hash, selection). Concurrent requests for the same key share a single
+ * generation: the first one runs it on its own thread, the others wait for its result (or its failure, which
+ * isn't cached). Finished results are kept in an LRU of a few entries. */
+public class OutputCache {
+  public interface Generation {
+    String generate() throws IOException;
+  }
+
+  private final LruCache<String, String> results;
+  private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+  private final AtomicLong generated = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+
+  public OutputCache(final int maxEntries) {
+    this.results = new LruCache<>(maxEntries);
+  }
+
+  /* the spec hash plus a digest of the selection, with the answers reduced to what the prompt makes of them
+   * ('y', 's' or anything else, which is a no) and sorted by prompt id, so equivalent selections share a key */
+  public static String key(final String md5, final Map<String, String> selection) {
+    final StringBuilder canonical = new StringBuilder();
+    for (final Map.Entry<String, String> entry : new TreeMap<>(selection).entrySet()) {
+      canonical.append(entry.getKey()).append('\0').append(answer(entry.getValue())).append('\n');
+    }
+
+    return md5 + ":" + DigestUtils.md5Hex(canonical.toString()).toUpperCase();
+  }
+
+  private static char answer(final String value) {
+    if (value == null) return '?'; // a missing answer, the generation will fail on it
+    if (value.equalsIgnoreCase("y")) return 'y';
+    if (value.equalsIgnoreCase("s")) return 's';
+    return 'n';
+  }
+
+  /* the finished result, or null. Doesn't wait for one in flight */
+  public String get(final String key) {
+    return results.get(key);
+  }
+
+  /* for results generated elsewhere, i.e. by a job */
+  public void put(final String key, final String result) {
+    results.put(key, result);
+  }
+
+  public String get(final String key, final Generation generation) throws IOException {
+    final String cached = results.get(key);
+    if (cached != null) return cached;
+
+    final CompletableFuture<String> created = new CompletableFuture<>();
+    final CompletableFuture<String> existing = inFlight.putIfAbsent(key, created);
+    if (existing != null) {
+      coalesced.incrementAndGet();
+      return await(existing);
+    }
+
+    try {
+      // it may have finished between the cache lookup and the putIfAbsent, which was already counted
+      String result = results.peek(key);
+      if (result == null) {
+        result = generation.generate();
+        generated.incrementAndGet();
+        results.put(key, result);
+      }
+
+      created.complete(result);
+      return result;
+    }
+    catch (IOException | RuntimeException | Error e) {
+      created.completeExceptionally(e);
+      throw e;
+    }
+    finally {
+      inFlight.remove(key, created);
+    }
+  }
+
+  private static String await(final CompletableFuture<String> future) throws IOException {
+    try {
+      return future.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted whilst waiting for a concurrent generation");
+    }
+    catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException io) throw io;
+      if (cause instanceof RuntimeException runtime) throw runtime;
+      if (cause instanceof Error error) throw error;
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  public Map<String, Object> stats() {
+    final Map<String, Object> stats = new LinkedHashMap<>(results.stats());
+    stats.put("inFlight", inFlight.size());
+    stats.put("generated", generated.get());
+    stats.put("coalesced", coalesced.get());
+    return stats;
+  }
+}
@@ -0,0 +1,76 @@
+package com.apollographql.oas.web.cache;
+
+import com.apollographql.oas.gen.WebGenerator;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* parsed and resolved specs, keyed by the MD5 of the file contents -- re-uploading the same spec (even
+ * under a different name) skips the parser, and two different specs with the same name no longer clash */
+public class SpecCache {
+  private final LruCache<String, OpenAPI> cache;
+  private final Map<Path, Hashed> hashes = new ConcurrentHashMap<>();
+
+  public SpecCache(final int maxEntries) {
+    this.cache = new LruCache<>(maxEntries);
+  }
+
+  public static String hash(final Path file) throws IOException {
+    try (InputStream input = Files.newInputStream(file)) {
+      return DigestUtils.md5Hex(input).toUpperCase();
+    }
+  }
+
+  /* the hash of a stored file, remembered until the file is replaced or changes size or modification time, so
+   * listing the stored specs doesn't read them all again */
+  public String hashOf(final Path file) throws IOException {
+    final Path key = file.toAbsolutePath().normalize();
+    final BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+
+    final Hashed hashed = hashes.get(key);
+    if (hashed != null && hashed.matches(attributes)) {
+      return hashed.hash();
+    }
+
+    final String hash = hash(key);
+    hashes.put(key, new Hashed(hash, attributes.fileKey(), attributes.size(), attributes.lastModifiedTime()));
+    return hash;
+  }
+
+  public OpenAPI get(final String hash) {
+    return cache.get(hash);
+  }
+
+  public OpenAPI load(final String hash, final Path file) throws IOException {
+    final OpenAPI cached = cache.get(hash);
+    if (cached != null) {
+      return cached;
+    }
+
+    // parse outside the lock, a concurrent upload of the same spec will at worst parse it twice
+    final OpenAPI parser = WebGenerator.parse(file.toAbsolutePath().toString());
+    cache.put(hash, parser);
+
+    return parser;
+  }
+
+  public Map<String, Object> stats() {
+    return cache.stats();
+  }
+
+  private record Hashed(String hash, Object fileKey, long size, FileTime modified) {
+    boolean matches(final BasicFileAttributes attributes) {
+      return Objects.equals(fileKey, attributes.fileKey()) && size == attributes.size()
+        && modified.equals(attributes.lastModifiedTime());
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package com.apollographql.oas.web.job;
+
+import com.apollographql.oas.gen.ConnectorGen;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/* a schema generation submitted to the JobRunner. Progress is reported per path while visiting, listeners
+ * are told about every change (on the job's thread) until the job reaches a final state. */
+public class Job implements ConnectorGen.Progress {
+  public enum State {
+    QUEUED, VISITING, WRITING, DONE, FAILED, CANCELLED;
+
+    public boolean isFinal() {
+      return this == DONE || this == FAILED || this == CANCELLED;
+    }
+  }
+
+  private final String id;
+  private final String md5;
+  private final Map<String, String> selection;
+  private final long submitted;
+
+  private volatile State state = State.QUEUED;
+  private volatile long started;
+  private volatile long finished;
+  private volatile int pathsDone;
+  private volatile int pathsTotal;
+  private volatile String currentPath;
+  private volatile String result;
+  private volatile String error;
+
+  private volatile Future<?> future;
+  private final List<Consumer<Job>> listeners = new CopyOnWriteArrayList<>();
+  private final ReentrantLock lock = new ReentrantLock();
+
+  public Job(final String id, final String md5, final Map<String, String> selection) {
+    this.id = id;
+    this.md5 = md5;
+    this.selection = selection;
+    this.submitted = System.currentTimeMillis();
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getMd5() {
+    return md5;
+  }
+
+  public Map<String, String> getSelection() {
+    return selection;
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  public long getSubmitted() {
+    return submitted;
+  }
+
+  public long getStarted() {
+    return started;
+  }
+
+  public long getFinished() {
+    return finished;
+  }
+
+  /* the schema, once DONE */
+  public String getResult() {
+    return result;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  /* throws a CancellationException once the job is cancelled, which stops the generation at the next path */
+  @Override
+  public void path(final String path, final int done, final int total) {
+    lock.lock();
+    try {
+      if (state.isFinal()) throw new CancellationException("Generation job " + id + " was " + state);
+
+      this.currentPath = path;
+      this.pathsDone = done;
+      this.pathsTotal = total;
+
+      if (done == total && state == State.VISITING) {
+        this.state = State.WRITING;
+      }
+
+      notifyListeners();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /* false when it was cancelled whilst queued */
+  boolean start() {
+    lock.lock();
+    try {
+      if (state.isFinal()) return false;
+
+      this.started = System.currentTimeMillis();
+      this.state = State.VISITING;
+      notifyListeners();
+      return true;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  void complete(final String result) {
+    this.result = result;
+    finish(State.DONE);
+  }
+
+  void fail(final Throwable cause) {
+    this.error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    finish(State.FAILED);
+  }
+
+  /* false when it had already finished */
+  boolean cancel() {
+    lock.lock();
+    try {
+      if (state.isFinal()) return false;
+
+      final Future<?> running = this.future;
+      if (running != null) running.cancel(true);
+
+      finish(State.CANCELLED);
+      return true;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  void setFuture(final Future<?> future) {
+    this.future = future;
+  }
+
+  /* a lock rather than the monitor: listeners write to sse emitters whilst it's held, which would pin a
+   * virtual thread */
+  private void finish(final State state) {
+    lock.lock();
+    try {
+      if (this.state.isFinal()) return;
+
+      this.finished = System.currentTimeMillis();
+      this.state = state;
+      notifyListeners();
+      listeners.clear();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /* the listener is called straight away with the current state, and then on every change. Under the lock, so
+   * it can't miss a change, nor be told about the final one twice */
+  public void subscribe(final Consumer<Job> listener) {
+    lock.lock();
+    try {
+      listener.accept(this);
+      if (!state.isFinal()) listeners.add(listener);
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  public void unsubscribe(final Consumer<Job> listener) {
+    listeners.remove(listener);
+  }
+
+  private void notifyListeners() {
+    for (final Consumer<Job> listener : listeners) {
+      listener.accept(this);
+    }
+  }
+
+  /* everything but the result, which can be large and has its own endpoint */
+  public Map<String, Object> toMap() {
+    final Map<String, Object> map = new LinkedHashMap<>();
+    map.put("id", id);
+    map.put("md5", md5);
+    map.put("state", state);
+    map.put("pathsDone", pathsDone);
+    map.put("pathsTotal", pathsTotal);
+    map.put("currentPath", currentPath);
+    map.put("submitted", submitted);
+    map.put("started", started);
+    map.put("finished", finished);
+    if (error != null) map.put("error", error);
+    return map;
+  }
+}
@@ -0,0 +1,9 @@
+package com.apollographql.oas.web.job;
+
+public class JobNotFoundException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  public JobNotFoundException(String message) {
+    super(message);
+  }
+}
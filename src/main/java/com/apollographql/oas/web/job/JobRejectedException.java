@@ -0,0 +1,9 @@
+package com.apollographql.oas.web.job;
+
+public class JobRejectedException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  public JobRejectedException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,164 @@
+package com.apollographql.oas.web.job;
+
+import com.apollographql.oas.gen.WebGenerator;
+import com.apollographql.oas.gen.prompt.Prompt;
+
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* runs generation jobs on a fixed number of threads with a bounded queue, so a burst of submissions can't
+ * pile up visits: once the queue is full new jobs are rejected. Finished jobs (and their results) are kept
+ * for the retention period so they can be fetched. */
+public class JobRunner {
+  private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+  private final ThreadPoolExecutor executor;
+  private final int queueCapacity;
+  private final Duration retention;
+
+  private final AtomicLong submitted = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong cancelled = new AtomicLong();
+  private final AtomicLong expired = new AtomicLong();
+
+  // time spent queued and running, in ms, over the jobs that got that far
+  private final AtomicLong waitTotal = new AtomicLong();
+  private final AtomicLong waitMax = new AtomicLong();
+  private final AtomicLong runTotal = new AtomicLong();
+  private final AtomicLong runMax = new AtomicLong();
+  private final AtomicLong runCount = new AtomicLong();
+  private final AtomicLong startCount = new AtomicLong();
+
+  public JobRunner(final int threads, final int queueCapacity, final Duration retention) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Job runner needs at least 1 thread, not: " + threads);
+    }
+    if (queueCapacity < 0) {
+      throw new IllegalArgumentException("Job queue capacity can't be negative: " + queueCapacity);
+    }
+
+    this.queueCapacity = queueCapacity;
+    this.retention = retention;
+
+    final AtomicInteger count = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+      queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+      runnable -> {
+        final Thread thread = new Thread(runnable, "generator-job-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      },
+      new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /* queues the generation, throws JobRejectedException when the queue is full */
+  public Job submit(final String md5, final WebGenerator generator, final Map<String, String> selection) {
+    final Job job = new Job(UUID.randomUUID().toString(), md5, selection);
+
+    jobs.put(job.getId(), job);
+    try {
+      job.setFuture(executor.submit(() -> run(job, generator)));
+    }
+    catch (RejectedExecutionException e) {
+      jobs.remove(job.getId());
+      rejected.incrementAndGet();
+      throw new JobRejectedException("Too many generations queued (" + queueCapacity + "), please try again later");
+    }
+
+    submitted.incrementAndGet();
+    return job;
+  }
+
+  private void run(final Job job, final WebGenerator generator) {
+    if (!job.start()) return; // cancelled whilst queued
+
+    record(job.getStarted() - job.getSubmitted(), waitTotal, waitMax, startCount);
+
+    try {
+      final StringWriter writer = new StringWriter();
+      generator.writeSchema(writer, Prompt.create(Prompt.Factory.mapPlayer(job.getSelection())), job);
+
+      job.complete(writer.toString());
+      if (job.getState() == Job.State.DONE) completed.incrementAndGet();
+    }
+    catch (Exception e) {
+      if (job.getState().isFinal()) return; // cancelled, the interrupt surfaced as an exception
+
+      job.fail(e);
+      failed.incrementAndGet();
+    }
+    finally {
+      if (job.getFinished() > 0) {
+        record(job.getFinished() - job.getStarted(), runTotal, runMax, runCount);
+      }
+    }
+  }
+
+  private static void record(final long millis, final AtomicLong total, final AtomicLong max, final AtomicLong count) {
+    total.addAndGet(millis);
+    max.accumulateAndGet(millis, Math::max);
+    count.incrementAndGet();
+  }
+
+  public Job get(final String id) {
+    final Job job = jobs.get(id);
+    if (job == null) {
+      throw new JobNotFoundException("No generation job found for '" + id + "', it may have expired");
+    }
+
+    return job;
+  }
+
+  public boolean cancel(final String id) {
+    final Job job = get(id);
+    final boolean cancelled = job.cancel();
+    if (cancelled) this.cancelled.incrementAndGet();
+
+    return cancelled;
+  }
+
+  /* drops finished jobs older than the retention period */
+  public void sweep() {
+    final long now = System.currentTimeMillis();
+
+    for (final Job job : jobs.values()) {
+      if (job.getState().isFinal() && now - job.getFinished() > retention.toMillis()) {
+        if (jobs.remove(job.getId(), job)) expired.incrementAndGet();
+      }
+    }
+  }
+
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  public Map<String, Object> stats() {
+    final long started = startCount.get();
+    final long ran = runCount.get();
+
+    final Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("size", jobs.size());
+    stats.put("threads", executor.getMaximumPoolSize());
+    stats.put("active", executor.getActiveCount());
+    stats.put("queued", executor.getQueue().size());
+    stats.put("queueCapacity", queueCapacity);
+    stats.put("submitted", submitted.get());
+    stats.put("rejected", rejected.get());
+    stats.put("completed", completed.get());
+    stats.put("failed", failed.get());
+    stats.put("cancelled", cancelled.get());
+    stats.put("expired", expired.get());
+    stats.put("avgWaitMs", started > 0 ? waitTotal.get() / started : 0);
+    stats.put("maxWaitMs", waitMax.get());
+    stats.put("avgRunMs", ran > 0 ? runTotal.get() / ran : 0);
+    stats.put("maxRunMs", runMax.get());
+    return stats;
+  }
+}
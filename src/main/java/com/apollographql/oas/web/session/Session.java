@@ -0,0 +1,63 @@
+package com.apollographql.oas.web.session;
+
+import com.apollographql.oas.gen.WebGenerator;
+
+public class Session {
+  private final String key;
+  private final WebGenerator generator;
+  private final long baseBytes;
+  private volatile long estimatedBytes;
+  private final long created;
+  private volatile long lastAccess;
+
+  public Session(final String key, final WebGenerator generator, final long estimatedBytes) {
+    this.key = key;
+    this.generator = generator;
+    this.baseBytes = estimatedBytes;
+    this.estimatedBytes = estimatedBytes;
+    this.created = System.currentTimeMillis();
+    this.lastAccess = created;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public WebGenerator getGenerator() {
+    return generator;
+  }
+
+  /* the estimate at registration, for the spec alone */
+  public long getBaseBytes() {
+    return baseBytes;
+  }
+
+  public long getEstimatedBytes() {
+    return estimatedBytes;
+  }
+
+  void setEstimatedBytes(final long estimatedBytes) {
+    this.estimatedBytes = estimatedBytes;
+  }
+
+  public long getCreated() {
+    return created;
+  }
+
+  public long getLastAccess() {
+    return lastAccess;
+  }
+
+  void touch() {
+    this.lastAccess = System.currentTimeMillis();
+  }
+
+  @Override
+  public String toString() {
+    return "Session {" +
+      "key='" + key + '\'' +
+      ", estimatedBytes=" + estimatedBytes +
+      ", lastAccess=" + lastAccess +
+      '}';
+  }
+}
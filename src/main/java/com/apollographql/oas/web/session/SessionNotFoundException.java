@@ -0,0 +1,9 @@
+package com.apollographql.oas.web.session;
+
+public class SessionNotFoundException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  public SessionNotFoundException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,190 @@
+package com.apollographql.oas.web.session;
+
+import com.apollographql.oas.gen.WebGenerator;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/* generator sessions keyed by spec hash. Each session retains the swagger model plus the visited type
+ * graph, so the registry is bounded by entry count, by an estimate of the retained heap and by idle time.
+ * Least recently used sessions are evicted first. */
+public class SessionRegistry {
+  private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+  private final int maxEntries;
+  private final long maxRetainedBytes;
+  private final Duration idleTtl;
+
+  private final AtomicLong retainedBytes = new AtomicLong();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  private final AtomicLong created = new AtomicLong();
+  private final AtomicLong closed = new AtomicLong();
+  private final AtomicLong evictedBySize = new AtomicLong();
+  private final AtomicLong evictedByHeap = new AtomicLong();
+  private final AtomicLong evictedByTtl = new AtomicLong();
+
+  public SessionRegistry(final int maxEntries, final long maxRetainedBytes, final Duration idleTtl) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("Session registry should allow at least 1 entry, not: " + maxEntries);
+    }
+
+    this.maxEntries = maxEntries;
+    this.maxRetainedBytes = maxRetainedBytes;
+    this.idleTtl = idleTtl;
+  }
+
+  public Session get(final String key) {
+    final Session session = sessions.get(key);
+    if (session == null) return null;
+
+    if (isExpired(session, System.currentTimeMillis())) {
+      if (remove(session)) evictedByTtl.incrementAndGet();
+      return null;
+    }
+
+    session.touch();
+    return session;
+  }
+
+  public Session register(final String key, final Supplier<WebGenerator> generator, final long estimatedBytes) {
+    final Session existing = get(key);
+    if (existing != null) {
+      return existing;
+    }
+
+    // built outside the map, so registering a big spec doesn't hold up others. Two concurrent registrations
+    // of the same spec may both build one, the first one in is kept
+    final Session session = new Session(key, generator.get(), estimatedBytes);
+    final Session current = sessions.putIfAbsent(key, session);
+    if (current != null) {
+      current.touch();
+      return current;
+    }
+
+    created.incrementAndGet();
+    retainedBytes.addAndGet(estimatedBytes);
+
+    evict(session);
+    return session;
+  }
+
+  /* the session's generator retains more as it's used (visited paths and rendered fragments of earlier
+   * generations), so it's estimated again after a generation, evicting other sessions when over budget */
+  public void resize(final String key) {
+    evictionLock.lock();
+    try {
+      final Session session = sessions.get(key);
+      if (session == null) return;
+
+      final long estimated = session.getBaseBytes() + session.getGenerator().estimateRetainedBytes();
+      retainedBytes.addAndGet(estimated - session.getEstimatedBytes());
+      session.setEstimatedBytes(estimated);
+
+      evict(session);
+    }
+    finally {
+      evictionLock.unlock();
+    }
+  }
+
+  public boolean close(final String key) {
+    final Session session = sessions.get(key);
+    if (session != null && remove(session)) {
+      closed.incrementAndGet();
+      return true;
+    }
+
+    return false;
+  }
+
+  /* drops every session that has been idle for longer than the TTL */
+  public void sweep() {
+    final long now = System.currentTimeMillis();
+
+    for (final Session session : sessions.values()) {
+      if (isExpired(session, now) && remove(session)) {
+        evictedByTtl.incrementAndGet();
+      }
+    }
+  }
+
+  private void evict(final Session keep) {
+    evictionLock.lock();
+    try {
+      sweep();
+
+      while (sessions.size() > maxEntries) {
+        if (!evictEldest(keep)) break;
+        evictedBySize.incrementAndGet();
+      }
+
+      // a single session bigger than the budget is kept, it's the one being used
+      while (retainedBytes.get() > maxRetainedBytes && sessions.size() > 1) {
+        if (!evictEldest(keep)) break;
+        evictedByHeap.incrementAndGet();
+      }
+    }
+    finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private boolean evictEldest(final Session keep) {
+    final Optional<Session> eldest = sessions.values().stream()
+      .filter(s -> s != keep)
+      .min(Comparator.comparingLong(Session::getLastAccess));
+
+    return eldest.isPresent() && remove(eldest.get());
+  }
+
+  /* under the eviction lock, so a session isn't resized whilst it's being removed */
+  private boolean remove(final Session session) {
+    evictionLock.lock();
+    try {
+      if (sessions.remove(session.getKey(), session)) {
+        retainedBytes.addAndGet(-session.getEstimatedBytes());
+        return true;
+      }
+
+      return false;
+    }
+    finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private boolean isExpired(final Session session, final long now) {
+    return idleTtl != null && now - session.getLastAccess() > idleTtl.toMillis();
+  }
+
+  public int size() {
+    return sessions.size();
+  }
+
+  public long getRetainedBytes() {
+    return retainedBytes.get();
+  }
+
+  public Map<String, Object> stats() {
+    final Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("size", size());
+    stats.put("maxEntries", maxEntries);
+    stats.put("retainedBytes", getRetainedBytes());
+    stats.put("maxRetainedBytes", maxRetainedBytes);
+    stats.put("idleTtlSeconds", idleTtl != null ? idleTtl.toSeconds() : -1);
+    stats.put("created", created.get());
+    stats.put("closed", closed.get());
+    stats.put("evictedBySize", evictedBySize.get());
+    stats.put("evictedByHeap", evictedByHeap.get());
+    stats.put("evictedByTtl", evictedByTtl.get());
+    return stats;
+  }
+}
@@ -48,8 +48,15 @@ public class FileSystemStorageService implements StorageService {
         throw new StorageException(
           "Cannot store file outside current directory.");
       }
+      // concurrent uploads of the same file name each write their own temp file and then swap it in, so
+      // a reader never sees a half written spec
+      final Path tempFile = Files.createTempFile(destinationFile.getParent(), ".upload-", ".tmp");
       try (InputStream inputStream = file.getInputStream()) {
-        Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+        Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(tempFile, destinationFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      finally {
+        Files.deleteIfExists(tempFile);
       }
 
       return destinationFile;
@@ -64,6 +71,7 @@ public class FileSystemStorageService implements StorageService {
     try {
       return Files.walk(this.rootLocation, 1)
         .filter(path -> !path.equals(this.rootLocation))
+        .filter(path -> !path.getFileName().toString().startsWith(".upload-")) // still being written
         .map(this.rootLocation::relativize);
     }
     catch (IOException e) {
@@ -1,12 +1,20 @@
 package com.apollographql.oas.gen;
 
+import com.apollographql.oas.converter.utils.NameUtils;
+import com.apollographql.oas.gen.bench.SyntheticSpec;
+import com.apollographql.oas.gen.context.EmissionPlanner;
+import com.apollographql.oas.gen.naming.Naming;
 import com.apollographql.oas.gen.nodes.*;
 import com.apollographql.oas.gen.nodes.params.Param;
 import com.apollographql.oas.gen.nodes.props.Prop;
 import com.apollographql.oas.gen.nodes.props.PropArray;
 import com.apollographql.oas.gen.nodes.props.PropScalar;
+import com.apollographql.oas.gen.prompt.Input;
 import com.apollographql.oas.gen.prompt.Prompt;
 import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.parser.OpenAPIV3Parser;
 import io.swagger.v3.parser.core.models.ParseOptions;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -756,6 +764,244 @@ public class ConnectorGenTests {
     assertEquals(0, result.getLeft());
   }
 
+  @Test
+  void test_026_ParallelVisitMatchesSequential() throws IOException {
+    final OpenAPI parser = createParser(loadSpec("common-room-core.json"));
+    assertNotNull(parser);
+
+    final ConnectorGen sequential = new ConnectorGen(parser, Prompt.create(Prompt.Factory.yes()));
+    sequential.visit();
+
+    final ConnectorGen parallel = new ConnectorGen(parser, Prompt.create(Prompt.Factory.yes()));
+    parallel.setParallelism(4);
+    parallel.visit();
+    assertEquals(sequential.getCollected().size(), parallel.getCollected().size());
+    assertEquals(sequential.getContext().getTypes().keySet(), parallel.getContext().getTypes().keySet());
+
+    sequential.writeSchema(getWriter());
+    final StringWriter output = new StringWriter();
+    parallel.writeSchema(output);
+    assertEquals(getWriter().toString(), output.toString());
+  }
+
+  @Test
+  void test_027_SyntheticSpec() throws IOException, InterruptedException {
+    final SyntheticSpec spec = new SyntheticSpec(20, 40, 3, 3, 2, 0, 7);
+    assertEquals(spec.document(), spec.document(), "Synthetic specs should be deterministic");
+
+    final OpenAPI parser = createParser(spec.write());
+    assertNotNull(parser);
+
+    final ConnectorGen generator = new ConnectorGen(parser, Prompt.create(Prompt.Factory.yes()));
+    generator.visit();
+    assertEquals(40, generator.getCollected().size(), "Should have collected 2 operations per path");
+
+    generator.writeSchema(getWriter());
+    final Pair<Integer, String> result = checkCompose();
+    assertEquals(0, result.getLeft());
+  }
+
+  @Test
+  void test_028_EmissionOrders() throws IOException, InterruptedException {
+    final OpenAPI parser = createParser(loadSpec("TMF666-Account_Management-v5.0.0.oas.yaml"));
+    assertNotNull(parser);
+
+    final ConnectorGen generator = new ConnectorGen(parser, Prompt.create(Prompt.Factory.yes()));
+    generator.visit();
+
+    final StringWriter alphabetical = new StringWriter();
+    generator.writeSchema(alphabetical);
+
+    final StringWriter byRefCount = new StringWriter();
+    generator.setEmissionOrder(EmissionPlanner.Order.REF_COUNT);
+    generator.writeSchema(byRefCount);
+
+    generator.setEmissionOrder(EmissionPlanner.Order.TOPOLOGICAL);
+    generator.writeSchema(getWriter());
+
+    // same definitions, only their order changes
+    final List<String> expected = alphabetical.toString().lines().sorted().toList();
+    assertEquals(expected, byRefCount.toString().lines().sorted().toList());
+    assertEquals(expected, getWriter().toString().lines().sorted().toList());
+
+    final Pair<Integer, String> result = checkCompose();
+    assertEquals(0, result.getLeft());
+  }
+
+  @Test
+  void test_029_OperationNamesMatchLegacy() throws IOException {
+    final File resources = new File(loadSpec("petstore.yaml")).getParentFile();
+    final File[] specs = resources.listFiles((dir, name) -> name.endsWith(".yaml") || name.endsWith(".json"));
+    assertNotNull(specs);
+
+    int checked = 0;
+    for (final File spec : specs) {
+      final OpenAPI parser = createParser(spec.getAbsolutePath());
+      if (parser == null || parser.getPaths() == null) continue;
+
+      for (final Map.Entry<String, PathItem> entry : parser.getPaths().entrySet()) {
+        final Operation get = entry.getValue().getGet();
+        if (get == null) continue;
+
+        assertEquals(NameUtils.genOperationName(entry.getKey(), get), Naming.genOperationName(entry.getKey(), get),
+          spec.getName() + ": " + entry.getKey());
+        checked++;
+      }
+    }
+    assertTrue(checked > 250, "Should have checked every GET in the bundled specs, only found " + checked);
+
+    // and random paths, with the characters either implementation treats specially
+    final String[] pieces = {"/", "{", "}", ":", "-", ".", "_", "[", "]", "a", "b", "i", "Z", "9", "ß", "é", "id",
+      "{id}", "{productId}", "/v1", "$", "\\"};
+    final Random random = new Random(29);
+
+    for (int n = 0; n < 20_000; n++) {
+      final String path = randomString(random, pieces, 12);
+
+      final Operation get = new Operation();
+      for (int p = random.nextInt(4); p > 0; p--) {
+        final Parameter parameter = new Parameter();
+        parameter.setName(randomString(random, pieces, 4) + "x");
+        parameter.setIn(random.nextBoolean() ? "path" : random.nextBoolean() ? "query" : "header");
+        parameter.setRequired(random.nextInt(3) == 0 ? null : random.nextBoolean());
+        get.addParametersItem(parameter);
+      }
+
+      String expected;
+      try {
+        expected = NameUtils.genOperationName(path, get);
+      }
+      catch (RuntimeException e) {
+        expected = e.getClass().getName();
+      }
+
+      String actual;
+      try {
+        actual = Naming.genOperationName(path, get);
+      }
+      catch (RuntimeException e) {
+        actual = e.getClass().getName();
+      }
+
+      assertEquals(expected, actual, "Path: " + path + ", parameters: " + get.getParameters());
+    }
+  }
+
+  @Test
+  void test_030_ReusedPathsMatchFreshGeneration() throws IOException {
+    final OpenAPI parser = createParser(loadSpec("TMF666-Account_Management-v5.0.0.oas.yaml"));
+    assertNotNull(parser);
+
+    final WebGenerator web = new WebGenerator(parser, Prompt.create(Prompt.Factory.yes()));
+    final List<String> paths = web.listGetPaths();
+
+    // the same selection twice, then one with different answers under a couple of paths
+    final List<Set<String>> flips = List.of(Set.of(), Set.of(), Set.of("get:" + paths.get(0), "get:" + paths.get(3)));
+    for (final Set<String> flipped : flips) {
+      final ConnectorGen fresh = new ConnectorGen(parser, Prompt.create(hashedInput(30, flipped)));
+      fresh.visit();
+      final StringWriter expected = new StringWriter();
+      fresh.writeSchema(expected);
+
+      final StringWriter actual = new StringWriter();
+      web.writeSchema(actual, Prompt.create(hashedInput(30, flipped)));
+      assertEquals(expected.toString(), actual.toString());
+    }
+
+    assertTrue((Long) web.getGenerated().stats().get("hits") > 0, "Should have reused visited paths");
+  }
+
+  @Test
+  void test_031_CachedFragmentsMatchFreshGeneration() throws IOException {
+    final OpenAPI parser = createParser(loadSpec("TMF637-ProductInventory-v5.0.0.oas.yaml"));
+    assertNotNull(parser);
+
+    final WebGenerator web = new WebGenerator(parser, Prompt.create(Prompt.Factory.yes()));
+
+    // answered one at a time, so no path is reused and the definitions come from the fragment cache alone
+    for (final long seed : List.of(31L, 32L, 31L)) {
+      final Input hashed = hashedInput(seed, Set.of());
+      final Input sequential = new Input() {
+        @Override
+        public boolean yesNo(final String id, final String prompt) {
+          return hashed.yesNo(id, prompt);
+        }
+
+        @Override
+        public char yesNoSelect(final String id, final String prompt) {
+          return hashed.yesNoSelect(id, prompt);
+        }
+      };
+
+      final ConnectorGen fresh = new ConnectorGen(parser, Prompt.create(sequential));
+      fresh.visit();
+      final StringWriter expected = new StringWriter();
+      fresh.writeSchema(expected);
+
+      final StringWriter actual = new StringWriter();
+      web.writeSchema(actual, Prompt.create(sequential));
+      assertEquals(expected.toString(), actual.toString());
+    }
+
+    assertTrue((Long) web.getFragments().stats().get("hits") > 0, "Should have spliced cached definitions");
+  }
+
+  @Test
+  void test_032_InterruptedGenerationStops() throws IOException {
+    final OpenAPI parser = createParser(loadSpec("TMF637-ProductInventory-v5.0.0.oas.yaml"));
+    assertNotNull(parser);
+
+    final List<String> visited = new ArrayList<>();
+    final ConnectorGen generator = new ConnectorGen(parser, Prompt.create(Prompt.Factory.yes()));
+    generator.setProgress((path, done, total) -> {
+      visited.add(path);
+      Thread.currentThread().interrupt(); // i.e. the job got cancelled
+    });
+
+    try {
+      assertThrows(InterruptedIOException.class, generator::visit);
+      assertEquals(1, visited.size(), "Should have stopped at the next path");
+    }
+    finally {
+      Thread.interrupted();
+    }
+  }
+
+  /* answers that depend on the id alone, different ones under the flipped paths */
+  private static Input hashedInput(final long seed, final Set<String> flipped) {
+    return new Input() {
+      private int hash(final String id) {
+        final int end = id.indexOf('>');
+        final String root = end < 0 ? id : id.substring(0, end);
+        return Math.floorMod(Objects.hash(seed, flipped.contains(root), id), 100);
+      }
+
+      @Override
+      public boolean yesNo(final String id, final String prompt) {
+        return hash(id) < 80;
+      }
+
+      @Override
+      public char yesNoSelect(final String id, final String prompt) {
+        final int hash = hash(id);
+        return hash < 60 ? 'y' : hash < 85 ? 's' : 'n';
+      }
+
+      @Override
+      public boolean isConcurrent() {
+        return true;
+      }
+    };
+  }
+
+  private static String randomString(final Random random, final String[] pieces, final int maxPieces) {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = random.nextInt(maxPieces + 1); i > 0; i--) {
+      builder.append(pieces[random.nextInt(pieces.length)]);
+    }
+    return builder.toString();
+  }
+
   private static OpenAPI createParser(String source) {
     final ParseOptions options = new ParseOptions();
     options.setResolve(true); // implicit
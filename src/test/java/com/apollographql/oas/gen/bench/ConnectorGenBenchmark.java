@@ -0,0 +1,124 @@
+package com.apollographql.oas.gen.bench;
+
+import com.apollographql.oas.gen.ConnectorGen;
+import com.apollographql.oas.gen.Recordings;
+import com.apollographql.oas.gen.context.RefCounter;
+import com.apollographql.oas.gen.prompt.Prompt;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/* one benchmark per phase of a generation, against the bundled specs, with every path and property selected
+ * (petstore replays its full recording instead, as a 'yes' to everything reaches a map schema we can't handle).
+ * Run with: mvn -Pbench test (the profile adds the gc profiler, for the allocation rate of each phase) */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConnectorGenBenchmark {
+
+  @Param({
+    "petstore.yaml",
+    "TMF632-Party_Management-v5.0.0.oas.yaml",
+    "TMF637-ProductInventory-v5.0.0.oas.yaml",
+    "TMF666-Account_Management-v5.0.0.oas.yaml",
+    "TMF717_Customer360-v5.0.0.oas.yaml",
+    "adobe-commerce-swagger.json",
+    "common-room-core.json"
+  })
+  public String spec;
+
+  private static final Map<String, String> RECORDINGS = Map.of(
+    "petstore.yaml", "test_001_FullPetstoreSchema.txt"
+  );
+
+  String source;
+  OpenAPI parser;
+  Map<String, String> recording;
+
+  private PrintStream stdout;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException, URISyntaxException {
+    // the generator reports progress on stdout, which would only measure the console
+    stdout = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+    source = resource(spec);
+    parser = ConnectorGen.fromFile(source, prompt()).getParser();
+
+    if (RECORDINGS.containsKey(spec)) {
+      try (InputStream input = ConnectorGenBenchmark.class.getClassLoader().getResourceAsStream(RECORDINGS.get(spec))) {
+        recording = Recordings.fromMapInputStream(input);
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    System.setOut(stdout);
+  }
+
+  /* a generator that has visited every path, for the phases that come after visit() */
+  @State(Scope.Thread)
+  public static class Visited {
+    ConnectorGen generator;
+
+    @Setup(Level.Invocation)
+    public void setUp(final ConnectorGenBenchmark benchmark) throws IOException {
+      generator = new ConnectorGen(benchmark.parser, benchmark.prompt());
+      generator.visit();
+    }
+  }
+
+  @Benchmark
+  public OpenAPI parse() throws IOException {
+    return ConnectorGen.fromFile(source, prompt()).getParser();
+  }
+
+  @Benchmark
+  public ConnectorGen visit() throws IOException {
+    final ConnectorGen generator = new ConnectorGen(parser, prompt());
+    generator.visit();
+    return generator;
+  }
+
+  @Benchmark
+  public Map<String, Integer> refCount(final Visited visited) {
+    final RefCounter counter = new RefCounter(visited.generator.getContext());
+    counter.addAll(visited.generator.getCollected());
+    return counter.getCount();
+  }
+
+  /* includes the ref count pass, as writeSchema runs its own */
+  @Benchmark
+  public ConnectorGen writeSchema(final Visited visited) throws IOException {
+    visited.generator.writeSchema(Writer.nullWriter());
+    return visited.generator;
+  }
+
+  Prompt prompt() {
+    return Prompt.create(recording != null ? Prompt.Factory.mapPlayer(recording) : Prompt.Factory.yes());
+  }
+
+  static String resource(final String name) throws URISyntaxException {
+    final URL url = ConnectorGenBenchmark.class.getClassLoader().getResource(name);
+    if (url == null) {
+      throw new IllegalArgumentException("Spec not found in test resources: " + name);
+    }
+
+    return new File(url.toURI()).getAbsolutePath();
+  }
+}
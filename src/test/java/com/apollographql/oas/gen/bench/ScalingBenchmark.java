@@ -0,0 +1,82 @@
+package com.apollographql.oas.gen.bench;
+
+import com.apollographql.oas.gen.ConnectorGen;
+import com.apollographql.oas.gen.prompt.Prompt;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/* visit and write times against synthetic specs of growing size (see SyntheticSpec), two components per path.
+ * Plotting the scores against 'paths' shows how each phase scales. Run with:
+ * mvn -Pbench test -Dbench.include=ScalingBenchmark */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScalingBenchmark {
+
+  @Param({"25", "50", "100", "200", "400"})
+  public int paths;
+
+  @Param({"3"})
+  public int fanOut;
+
+  @Param({"2"})
+  public int compositionDepth;
+
+  @Param({"0.1"})
+  public double recursion;
+
+  OpenAPI parser;
+
+  private PrintStream stdout;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    stdout = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+    final SyntheticSpec spec = new SyntheticSpec(paths, paths * 2, fanOut, 3, compositionDepth, recursion, 42);
+    parser = ConnectorGen.fromFile(spec.write(), yes()).getParser();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    System.setOut(stdout);
+  }
+
+  @State(Scope.Thread)
+  public static class Visited {
+    ConnectorGen generator;
+
+    @Setup(Level.Invocation)
+    public void setUp(final ScalingBenchmark benchmark) throws IOException {
+      generator = new ConnectorGen(benchmark.parser, yes());
+      generator.visit();
+    }
+  }
+
+  @Benchmark
+  public ConnectorGen visit() throws IOException {
+    final ConnectorGen generator = new ConnectorGen(parser, yes());
+    generator.visit();
+    return generator;
+  }
+
+  @Benchmark
+  public ConnectorGen writeSchema(final Visited visited) throws IOException {
+    visited.generator.writeSchema(Writer.nullWriter());
+    return visited.generator;
+  }
+
+  static Prompt yes() {
+    return Prompt.create(Prompt.Factory.yes());
+  }
+}
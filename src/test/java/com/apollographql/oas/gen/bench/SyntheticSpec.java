@@ -0,0 +1,185 @@
+package com.apollographql.oas.gen.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/* deterministic synthetic OpenAPI documents, for finding how visit and write times scale with the shape of a
+ * spec. The same shape (seed included) always produces the same document.
+ *
+ * - paths: number of resources, each one exposed as 'get:/resourceN' (a list) and 'get:/resourceN/{id}'
+ * - components: number of object schemas in components/schemas
+ * - fanOut: number of $ref (or array of $ref) properties per component
+ * - nesting: how deep $ref properties can nest, components are ranked 0..nesting and only point at the next rank
+ * - compositionDepth: depth of the allOf chains. Most components extend one of the 'BaseN' schemas (themselves
+ *   extending each other, up to this depth) and some are a oneOf of two components (0 for plain objects only)
+ * - recursion: chance (0..1) that a $ref property points back at its own component (a Category.parent kind of
+ *   cycle). Longer cycles aren't generated: as cycles are only cut once a component repeats along a path, they
+ *   make the selection grow exponentially with the number of components, which hides everything else */
+public record SyntheticSpec(int paths, int components, int fanOut, int nesting, int compositionDepth,
+                            double recursion, long seed) {
+
+  private static final String[] SCALARS = {"string", "integer", "number", "boolean"};
+  private static final String SCHEMAS = "#/components/schemas/";
+
+  public SyntheticSpec {
+    if (paths < 1 || components < 1) {
+      throw new IllegalArgumentException("Need at least 1 path and 1 component: " + paths + "/" + components);
+    }
+    if (fanOut < 0 || nesting < 0 || compositionDepth < 0) {
+      throw new IllegalArgumentException("Fan-out, nesting and composition depth can't be negative");
+    }
+    if (recursion < 0 || recursion > 1) {
+      throw new IllegalArgumentException("Recursion should be between 0 and 1, not: " + recursion);
+    }
+  }
+
+  public static SyntheticSpec of(final int paths, final int components) {
+    return new SyntheticSpec(paths, components, 3, 3, 2, 0.1, 42);
+  }
+
+  /* writes the document to a temporary file, returning its absolute path */
+  public String write() throws IOException {
+    final Path file = Files.createTempFile("synthetic-" + paths + "x" + components + "-", ".json");
+    file.toFile().deleteOnExit();
+
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), document());
+    return file.toAbsolutePath().toString();
+  }
+
+  public Map<String, Object> document() {
+    final Random random = new Random(seed);
+
+    final Map<String, Object> document = new LinkedHashMap<>();
+    document.put("openapi", "3.0.1");
+    document.put("info", map("title", "Synthetic " + this, "version", "1.0.0"));
+    document.put("servers", List.of(map("url", "https://synthetic.example.com")));
+    document.put("paths", paths(random));
+    document.put("components", map("schemas", schemas(random)));
+
+    return document;
+  }
+
+  private Map<String, Object> paths(final Random random) {
+    final Map<String, Object> result = new LinkedHashMap<>();
+
+    for (int i = 0; i < paths; i++) {
+      final String component = name(random.nextInt(components));
+
+      result.put("/resource" + i, map("get", operation("listResource" + i,
+        List.of(param("limit", "query", "integer", false)),
+        map("type", "array", "items", ref(component)))));
+
+      result.put("/resource" + i + "/{id}", map("get", operation("getResource" + i,
+        List.of(param("id", "path", "string", true)),
+        ref(component))));
+    }
+
+    return result;
+  }
+
+  private Map<String, Object> schemas(final Random random) {
+    final Map<String, Object> result = new LinkedHashMap<>();
+
+    for (int d = 0; d < compositionDepth; d++) {
+      final Map<String, Object> base = scalars(random, "base" + d);
+      result.put(base(d), d == 0 ? base : map("allOf", List.of(ref(base(d - 1)), base)));
+    }
+
+    for (int i = 0; i < components; i++) {
+      final int level = compositionDepth > 0 ? i % (compositionDepth + 1) : 0;
+      final Integer first = level > 0 && i % 4 == 3 ? forward(random, i) : null;
+      final Integer second = first != null ? forward(random, i) : null;
+
+      if (second != null) {
+        result.put(name(i), map("oneOf", List.of(ref(name(first)), ref(name(second)))));
+      }
+      else if (level > 0) {
+        result.put(name(i), map("allOf", List.of(ref(base(level - 1)), object(random, i))));
+      }
+      else {
+        result.put(name(i), object(random, i));
+      }
+    }
+
+    return result;
+  }
+
+  private Map<String, Object> object(final Random random, final int index) {
+    final Map<String, Object> object = scalars(random, "field" + index);
+
+    @SuppressWarnings("unchecked")
+    final Map<String, Object> properties = (Map<String, Object>) object.get("properties");
+
+    for (int r = 0; r < fanOut; r++) {
+      final Integer target = random.nextDouble() < recursion ? Integer.valueOf(index) : forward(random, index);
+      if (target == null) break;
+
+      final Map<String, Object> property = ref(name(target));
+      properties.put("link" + r, random.nextBoolean() ? property : map("type", "array", "items", property));
+    }
+
+    return object;
+  }
+
+  private Map<String, Object> scalars(final Random random, final String prefix) {
+    final Map<String, Object> properties = new LinkedHashMap<>();
+    properties.put("id", map("type", "string"));
+
+    for (int p = 0; p < 3; p++) {
+      properties.put(prefix + "_" + p, map("type", SCALARS[random.nextInt(SCALARS.length)]));
+    }
+
+    return map("type", "object", "properties", properties);
+  }
+
+  /* forward references go to a component of the next rank, so chains are at most 'nesting' deep */
+  private Integer forward(final Random random, final int index) {
+    if (index % (nesting + 1) == nesting) return null;
+
+    final int columns = (components - index - 1) / (nesting + 1) + 1;
+    final int target = index + 1 + (nesting + 1) * random.nextInt(columns);
+    return target < components ? target : null;
+  }
+
+  private static Map<String, Object> operation(final String id, final List<Object> parameters,
+                                               final Map<String, Object> schema) {
+    return map(
+      "operationId", id,
+      "parameters", parameters,
+      "responses", map("200", map(
+        "description", "OK",
+        "content", map("application/json", map("schema", schema))))
+    );
+  }
+
+  private static Map<String, Object> param(final String name, final String in, final String type,
+                                           final boolean required) {
+    return map("name", name, "in", in, "required", required, "schema", map("type", type));
+  }
+
+  private static String name(final int index) {
+    return "Component" + index;
+  }
+
+  private static String base(final int depth) {
+    return "Base" + depth;
+  }
+
+  private static Map<String, Object> ref(final String component) {
+    return map("$ref", SCHEMAS + component);
+  }
+
+  private static Map<String, Object> map(final Object... entries) {
+    final Map<String, Object> map = new LinkedHashMap<>();
+    for (int i = 0; i < entries.length; i += 2) {
+      map.put((String) entries[i], entries[i + 1]);
+    }
+
+    return map;
+  }
+}
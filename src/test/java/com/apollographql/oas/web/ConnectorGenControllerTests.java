@@ -0,0 +1,168 @@
+package com.apollographql.oas.web;
+
+import com.apollographql.oas.gen.ConnectorGen;
+import com.apollographql.oas.gen.Recordings;
+import com.apollographql.oas.gen.WebGenerator;
+import com.apollographql.oas.gen.prompt.Prompt;
+import com.apollographql.oas.web.job.Job;
+import com.apollographql.oas.web.job.JobRunner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ConnectorGenControllerTests {
+  private GeneratorServiceImpl service;
+  private MockMvc mvc;
+  private String md5;
+  private Map<String, String> answers;
+  private String selection;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    service = new GeneratorServiceImpl(new GeneratorProperties());
+    mvc = MockMvcBuilders.standaloneSetup(new ConnectorGenController(null, service)).build();
+
+    md5 = service.parse(Path.of(resource("petstore.yaml").toURI()));
+    try (InputStream input = resource("test_001_FullPetstoreSchema.txt").openStream()) {
+      answers = Recordings.fromMapInputStream(input);
+    }
+    selection = new ObjectMapper().writeValueAsString(answers);
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  void test_001_StreamsTheSchema() throws Exception {
+    final String streamed = stream(md5);
+    assertTrue(streamed.contains("type Query {"), "Should have streamed the whole schema");
+
+    // a streamed schema isn't kept, a generated one is served from the cache
+    assertEquals(0, outputs().get("size"));
+    assertEquals(streamed, service.generate(md5, answers));
+    assertEquals(streamed, stream(md5));
+    assertEquals(1L, outputs().get("hits"));
+    assertEquals(1L, outputs().get("generated"));
+  }
+
+  @Test
+  void test_002_MissingSessionIsNotFound() throws Exception {
+    mvc.perform(post("/visit/{md5}/generate/stream", "missing")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(selection))
+      .andExpect(status().isNotFound())
+      .andExpect(request().asyncNotStarted());
+  }
+
+  @Test
+  void test_003_JobEventsEndWithASingleFinalEvent() throws Exception {
+    final JobRunner runner = new JobRunner(1, 0, Duration.ofMinutes(1));
+    final GeneratorServiceImpl jobs = new GeneratorServiceImpl(new GeneratorProperties()) {
+      @Override
+      public Job getJob(final String id) {
+        return runner.get(id);
+      }
+    };
+    final MockMvc events = MockMvcBuilders.standaloneSetup(new ConnectorGenController(null, jobs)).build();
+
+    try {
+      final Generation generation = new Generation();
+      final Job job = runner.submit(md5, generation, answers);
+      assertTrue(generation.started.await(5, TimeUnit.SECONDS), "Should have started");
+
+      final MvcResult subscribed = events.perform(get("/jobs/{id}/events", job.getId()))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+      generation.released.countDown();
+      events.perform(asyncDispatch(subscribed));
+
+      final List<String> names = Pattern.compile("^event:(\\w+)$", Pattern.MULTILINE)
+        .matcher(subscribed.getResponse().getContentAsString())
+        .results().map(match -> match.group(1)).toList();
+      assertEquals("progress", names.get(0));
+      assertEquals("done", names.get(names.size() - 1));
+      assertEquals(1, names.stream().filter(name -> !name.equals("progress")).count(),
+        "Should have sent a single final event");
+    }
+    finally {
+      runner.shutdown();
+      jobs.shutdown();
+    }
+  }
+
+  private String stream(final String md5) throws Exception {
+    final MvcResult started = mvc.perform(post("/visit/{md5}/generate/stream", md5)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(selection))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    return mvc.perform(asyncDispatch(started))
+      .andExpect(status().isOk())
+      .andReturn().getResponse().getContentAsString();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> outputs() {
+    return (Map<String, Object>) service.stats().get("outputs");
+  }
+
+  /* reports a path, then waits to be released */
+  private static class Generation extends WebGenerator {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch released = new CountDownLatch(1);
+
+    Generation() {
+      super(new OpenAPI(), Prompt.create(Prompt.Factory.yes()));
+    }
+
+    @Override
+    public void writeSchema(final Writer writer, final Prompt prompt, final ConnectorGen.Progress progress)
+      throws IOException {
+      progress.path("/pets", 1, 2);
+      started.countDown();
+      try {
+        released.await();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      }
+
+      progress.path("/pets/{id}", 2, 2);
+      writer.write("type Query {}\n");
+    }
+  }
+
+  private static URL resource(final String name) {
+    return ConnectorGenControllerTests.class.getClassLoader().getResource(name);
+  }
+}
@@ -0,0 +1,97 @@
+package com.apollographql.oas.web.cache;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LruCacheTests {
+
+  @Test
+  void test_001_EvictsLeastRecentlyUsed() {
+    final LruCache<String, String> cache = new LruCache<>(2);
+    cache.put("a", "1");
+    cache.put("b", "2");
+    assertEquals("1", cache.get("a")); // b is now the eldest
+
+    cache.put("c", "3");
+
+    assertNull(cache.get("b"));
+    assertEquals("1", cache.get("a"));
+    assertEquals("3", cache.get("c"));
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictions());
+    assertEquals(3, cache.getHits());
+    assertEquals(1, cache.getMisses());
+
+    assertEquals("1", cache.peek("a"));
+    assertNull(cache.peek("b"));
+    assertEquals(3, cache.getHits(), "Should not count peeks");
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  void test_002_RejectsEmptyCaches() {
+    assertThrows(IllegalArgumentException.class, () -> new LruCache<String, String>(0));
+  }
+
+  @Test
+  void test_003_SpecsAreParsedOncePerHash() throws IOException, URISyntaxException {
+    final Path file = Path.of(LruCacheTests.class.getClassLoader().getResource("petstore.yaml").toURI());
+    final SpecCache cache = new SpecCache(2);
+    final String hash = SpecCache.hash(file);
+
+    assertNull(cache.get(hash));
+    final OpenAPI parsed = cache.load(hash, file);
+    assertNotNull(parsed);
+    assertSame(parsed, cache.load(hash, file), "Should reuse the parsed spec");
+    assertEquals(1, cache.stats().get("size"));
+  }
+
+  @Test
+  void test_004_StoredFilesAreHashedUntilReplaced() throws IOException {
+    final Path dir = Files.createTempDirectory("spec-cache");
+    final Path file = dir.resolve("spec.yaml");
+    try {
+      Files.writeString(file, "openapi: 3.0.0\n");
+      final SpecCache cache = new SpecCache(2);
+
+      final String hash = cache.hashOf(file);
+      assertEquals(SpecCache.hash(file), hash);
+      assertEquals(hash, cache.hashOf(file));
+
+      // replaced the way the storage does it, with a move
+      final Path upload = dir.resolve(".upload.tmp");
+      Files.writeString(upload, "openapi: 3.0.1\n");
+      Files.move(upload, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+      assertNotEquals(hash, cache.hashOf(file));
+      assertEquals(SpecCache.hash(file), cache.hashOf(file));
+    }
+    finally {
+      Files.deleteIfExists(file);
+      Files.deleteIfExists(dir);
+    }
+  }
+
+  @Test
+  void test_005_TellsAboutEvictions() {
+    final List<String> evicted = new ArrayList<>();
+    final LruCache<String, String> cache = new LruCache<>(1, (key, value) -> evicted.add(key + "=" + value));
+
+    assertNull(cache.putIfAbsent("a", "1"));
+    assertEquals("1", cache.putIfAbsent("a", "2"), "Should keep the value already there");
+    assertNull(cache.putIfAbsent("b", "3"));
+
+    assertEquals(List.of("a=1"), evicted);
+    assertEquals("3", cache.peek("b"));
+  }
+}
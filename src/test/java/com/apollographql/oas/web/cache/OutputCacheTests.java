@@ -0,0 +1,111 @@
+package com.apollographql.oas.web.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutputCacheTests {
+
+  @Test
+  void test_001_ConcurrentRequestsShareAGeneration() throws Exception {
+    final OutputCache cache = new OutputCache(4);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger generations = new AtomicInteger();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() -> cache.get("key", () -> {
+          generations.incrementAndGet();
+          await(release);
+          return "schema";
+        })));
+      }
+
+      // all but the first one wait for it
+      awaitUntil(() -> (Long) cache.stats().get("coalesced") == 7);
+      release.countDown();
+
+      for (final Future<String> result : results) {
+        assertEquals("schema", result.get(5, TimeUnit.SECONDS));
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(1, generations.get());
+    assertEquals(1L, cache.stats().get("generated"));
+    assertEquals(0, cache.stats().get("inFlight"));
+    assertEquals("schema", cache.get("key", () -> fail("Should have been cached")));
+    assertEquals(8L, cache.stats().get("misses"), "Should count a miss per request");
+    assertEquals(1L, cache.stats().get("hits"));
+  }
+
+  @Test
+  void test_002_FailuresAreNotCached() throws Exception {
+    final OutputCache cache = new OutputCache(4);
+    final CountDownLatch release = new CountDownLatch(1);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<String> first = executor.submit(() -> cache.get("key", () -> {
+        await(release);
+        throw new IOException("Could not generate");
+      }));
+      awaitUntil(() -> (Integer) cache.stats().get("inFlight") == 1);
+
+      final Future<String> waiting = executor.submit(() -> cache.get("key", () -> "not called"));
+      awaitUntil(() -> (Long) cache.stats().get("coalesced") == 1);
+      release.countDown();
+
+      // the one waiting gets the same failure
+      for (final Future<String> result : List.of(first, waiting)) {
+        final ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, e.getCause());
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals("schema", cache.get("key", () -> "schema"), "Should generate again after a failure");
+    assertEquals(1L, cache.stats().get("generated"));
+  }
+
+  @Test
+  void test_003_EquivalentSelectionsShareAKey() {
+    final String key = OutputCache.key("MD5", Map.of("get:/a", "Y", "get:/b", "no"));
+
+    assertEquals(key, OutputCache.key("MD5", Map.of("get:/b", "n", "get:/a", "y")));
+    assertNotEquals(key, OutputCache.key("MD5", Map.of("get:/a", "s", "get:/b", "n")));
+    assertNotEquals(key, OutputCache.key("OTHER", Map.of("get:/a", "y", "get:/b", "n")));
+  }
+
+  private static void await(final CountDownLatch latch) throws IOException {
+    try {
+      latch.await();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    }
+  }
+
+  private static void awaitUntil(final Callable<Boolean> condition) throws Exception {
+    final long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.call()) {
+      if (System.currentTimeMillis() > deadline) fail("Timed out waiting");
+      Thread.sleep(5);
+    }
+  }
+}
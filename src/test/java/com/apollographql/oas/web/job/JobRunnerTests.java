@@ -0,0 +1,188 @@
+package com.apollographql.oas.web.job;
+
+import com.apollographql.oas.gen.ConnectorGen;
+import com.apollographql.oas.gen.WebGenerator;
+import com.apollographql.oas.gen.prompt.Prompt;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobRunnerTests {
+  private JobRunner runner;
+
+  @AfterEach
+  void tearDown() {
+    if (runner != null) runner.shutdown();
+  }
+
+  @Test
+  void test_001_RejectsWhenTheQueueIsFull() throws InterruptedException {
+    runner = new JobRunner(1, 1, Duration.ofMinutes(1));
+    final Generation running = new Generation();
+    final Generation queued = new Generation();
+
+    final Job first = runner.submit("md5", running, Map.of());
+    running.await();
+    final Job second = runner.submit("md5", queued, Map.of());
+
+    assertThrows(JobRejectedException.class, () -> runner.submit("md5", new Generation(), Map.of()));
+    assertEquals(1L, runner.stats().get("rejected"));
+
+    running.release();
+    queued.release();
+    awaitState(first, Job.State.DONE);
+    awaitState(second, Job.State.DONE);
+    assertEquals("type Query {}\n", second.getResult());
+  }
+
+  @Test
+  void test_002_CancelWhilstQueued() throws InterruptedException {
+    runner = new JobRunner(1, 1, Duration.ofMinutes(1));
+    final Generation running = new Generation();
+    final Generation queued = new Generation();
+
+    final Job first = runner.submit("md5", running, Map.of());
+    running.await();
+    final Job second = runner.submit("md5", queued, Map.of());
+
+    assertTrue(runner.cancel(second.getId()));
+    assertEquals(Job.State.CANCELLED, second.getState());
+    assertFalse(runner.cancel(second.getId()), "Should only cancel once");
+
+    running.release();
+    awaitState(first, Job.State.DONE);
+    awaitUntil(() -> (Integer) runner.stats().get("active") == 0);
+
+    assertEquals(1, queued.started.getCount(), "Should never have started the cancelled job");
+    assertEquals(Job.State.CANCELLED, second.getState());
+    assertEquals(0, second.getStarted());
+  }
+
+  @Test
+  void test_003_CancelWhilstRunning() throws InterruptedException {
+    runner = new JobRunner(1, 0, Duration.ofMinutes(1));
+    final Generation running = new Generation();
+
+    final Job job = runner.submit("md5", running, Map.of());
+    running.await();
+    awaitUntil(() -> job.toMap().get("pathsDone") instanceof Integer done && done > 0);
+
+    assertTrue(runner.cancel(job.getId()));
+    assertTrue(running.stopped.await(5, TimeUnit.SECONDS), "Should have stopped at the next path");
+    assertEquals(Job.State.CANCELLED, job.getState());
+    assertNull(job.getResult());
+
+    // and the thread is free for the next one
+    awaitUntil(() -> (Integer) runner.stats().get("active") == 0);
+    final Generation next = new Generation();
+    next.release();
+    final Job following = runner.submit("md5", next, Map.of());
+    awaitState(following, Job.State.DONE);
+  }
+
+  @Test
+  void test_004_SweepDropsExpiredJobs() throws InterruptedException {
+    runner = new JobRunner(2, 0, Duration.ZERO);
+    final Generation finished = new Generation();
+    final Generation running = new Generation();
+    finished.release();
+
+    final Job done = runner.submit("md5", finished, Map.of());
+    awaitState(done, Job.State.DONE);
+    final Job busy = runner.submit("md5", running, Map.of());
+    running.await();
+
+    awaitUntil(() -> System.currentTimeMillis() > done.getFinished());
+    runner.sweep();
+
+    assertThrows(JobNotFoundException.class, () -> runner.get(done.getId()));
+    assertSame(busy, runner.get(busy.getId()), "Should keep jobs that haven't finished");
+    assertEquals(1L, runner.stats().get("expired"));
+
+    running.release();
+  }
+
+  @Test
+  void test_005_ListenersAreToldOfTheFinalStateOnce() throws InterruptedException {
+    runner = new JobRunner(1, 0, Duration.ofMinutes(1));
+    final Generation running = new Generation();
+
+    final Job job = runner.submit("md5", running, Map.of());
+    running.await();
+    final List<Job.State> seen = new CopyOnWriteArrayList<>();
+    job.subscribe(current -> seen.add(current.getState()));
+
+    running.release();
+    awaitUntil(() -> seen.contains(Job.State.DONE));
+    assertEquals(Job.State.VISITING, seen.get(0));
+    assertEquals(List.of(Job.State.DONE), seen.stream().filter(Job.State::isFinal).toList());
+
+    // subscribing once it's finished only gets the final state
+    final List<Job.State> late = new ArrayList<>();
+    job.subscribe(current -> late.add(current.getState()));
+    assertEquals(List.of(Job.State.DONE), late);
+  }
+
+  private static void awaitState(final Job job, final Job.State state) throws InterruptedException {
+    awaitUntil(() -> job.getState() == state);
+  }
+
+  private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) fail("Timed out waiting");
+      Thread.sleep(5);
+    }
+  }
+
+  /* reports a path at a time until released, like ConnectorGen.visit. Interrupts are ignored, so a cancelled
+   * job only stops when told so by its progress */
+  private static class Generation extends WebGenerator {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch released = new CountDownLatch(1);
+    final CountDownLatch stopped = new CountDownLatch(1);
+
+    Generation() {
+      super(new OpenAPI(), Prompt.create(Prompt.Factory.yes()));
+    }
+
+    void await() throws InterruptedException {
+      assertTrue(started.await(5, TimeUnit.SECONDS), "Should have started");
+    }
+
+    void release() {
+      released.countDown();
+    }
+
+    @Override
+    public void writeSchema(final Writer writer, final Prompt prompt, final ConnectorGen.Progress progress)
+      throws IOException {
+      started.countDown();
+      try {
+        for (int done = 1; released.getCount() > 0; done++) {
+          progress.path("/path/" + done, done, Integer.MAX_VALUE);
+          LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        writer.write("type Query {}\n");
+      }
+      finally {
+        stopped.countDown();
+      }
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package com.apollographql.oas.web.session;
+
+import com.apollographql.oas.gen.WebGenerator;
+import com.apollographql.oas.gen.prompt.Prompt;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionRegistryTests {
+
+  @Test
+  void test_001_EvictsLeastRecentlyUsed() throws InterruptedException {
+    final SessionRegistry registry = new SessionRegistry(2, Long.MAX_VALUE, null);
+    registry.register("a", Generator::new, 1);
+    Thread.sleep(2);
+    registry.register("b", Generator::new, 1);
+    Thread.sleep(2);
+    assertNotNull(registry.get("a")); // b is now the eldest
+
+    registry.register("c", Generator::new, 1);
+
+    assertNull(registry.get("b"));
+    assertNotNull(registry.get("a"));
+    assertNotNull(registry.get("c"));
+    assertEquals(1L, registry.stats().get("evictedBySize"));
+    assertEquals(2L, registry.getRetainedBytes());
+  }
+
+  @Test
+  void test_002_ExpiresIdleSessions() throws InterruptedException {
+    final SessionRegistry registry = new SessionRegistry(4, Long.MAX_VALUE, Duration.ofMillis(20));
+    registry.register("a", Generator::new, 1);
+    registry.register("b", Generator::new, 1);
+    Thread.sleep(50);
+
+    assertNull(registry.get("a"));
+    registry.sweep();
+
+    assertEquals(0, registry.size());
+    assertEquals(0L, registry.getRetainedBytes());
+    assertEquals(2L, registry.stats().get("evictedByTtl"));
+  }
+
+  @Test
+  void test_003_EvictsWhenOverTheHeapBudget() throws InterruptedException {
+    final SessionRegistry registry = new SessionRegistry(4, 100, null);
+    registry.register("a", Generator::new, 60);
+    Thread.sleep(2);
+    registry.register("b", Generator::new, 60);
+
+    assertNull(registry.get("a"));
+    assertNotNull(registry.get("b"));
+    assertEquals(60L, registry.getRetainedBytes());
+    assertEquals(1L, registry.stats().get("evictedByHeap"));
+
+    // a single session over the budget is kept
+    registry.register("c", Generator::new, 200);
+    assertNotNull(registry.get("c"));
+    assertEquals(1, registry.size());
+  }
+
+  @Test
+  void test_004_ResizesGrowingSessions() throws InterruptedException {
+    final SessionRegistry registry = new SessionRegistry(4, 100, null);
+    final Generator grown = new Generator();
+    registry.register("a", Generator::new, 30);
+    Thread.sleep(2);
+    registry.register("b", () -> grown, 30);
+
+    // b's generations retain more than the budget allows for both
+    grown.retained = 50;
+    registry.resize("b");
+
+    assertNull(registry.get("a"));
+    assertEquals(80L, registry.get("b").getEstimatedBytes());
+    assertEquals(30L, registry.get("b").getBaseBytes());
+    assertEquals(80L, registry.getRetainedBytes());
+  }
+
+  @Test
+  void test_005_Close() {
+    final SessionRegistry registry = new SessionRegistry(4, Long.MAX_VALUE, null);
+    registry.register("a", Generator::new, 10);
+
+    assertTrue(registry.close("a"));
+    assertFalse(registry.close("a"), "Should only close once");
+    assertNull(registry.get("a"));
+    assertEquals(0L, registry.getRetainedBytes());
+    assertEquals(1L, registry.stats().get("closed"));
+  }
+
+  @Test
+  void test_006_GeneratorIsBuiltOutsideTheMap() {
+    final SessionRegistry registry = new SessionRegistry(4, Long.MAX_VALUE, null);
+
+    // building one session registers another, which a compute on the same map would reject
+    final Session session = registry.register("a", () -> {
+      registry.register("b", Generator::new, 1);
+      return new Generator();
+    }, 1);
+
+    assertSame(session, registry.get("a"));
+    assertNotNull(registry.get("b"));
+    assertSame(session, registry.register("a", Generator::new, 1), "Should keep the registered session");
+    assertEquals(2L, registry.stats().get("created"));
+  }
+
+  private static class Generator extends WebGenerator {
+    long retained;
+
+    Generator() {
+      super(new OpenAPI(), Prompt.create(Prompt.Factory.yes()));
+    }
+
+    @Override
+    public long estimateRetainedBytes() {
+      return retained;
+    }
+  }
+}